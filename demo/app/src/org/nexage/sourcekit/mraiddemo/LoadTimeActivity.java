@@ -0,0 +1,217 @@
+package org.nexage.sourcekit.mraiddemo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+
+import org.nexage.sourcekit.mraid.MRAIDBanner;
+import org.nexage.sourcekit.mraid.MRAIDSettings;
+import org.nexage.sourcekit.mraid.MRAIDView;
+import org.nexage.sourcekit.mraid.MRAIDViewListener;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.ViewGroup;
+import android.webkit.WebView;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+/**
+ * Measures how long the second ad takes to load under each MRAIDSettings cache policy.
+ * <p/>
+ * Each round starts from an empty WebView cache, loads the creative once, destroys
+ * that ad, which applies the cache policy, and then times loading the same creative
+ * again. The load time runs from creating the MRAIDView to mraidViewLoaded. The
+ * results are shown on the screen and logged.
+ * <p/>
+ * With a single ad on the screen, CACHE_POLICY_CLEAR_ON_SESSION_END clears the whole
+ * cache every time an ad is destroyed, which is what the SDK always did before the
+ * cache policy was added, so its numbers double as the baseline.
+ * <p/>
+ * The cache only matters for resources fetched over HTTP. The default creative,
+ * banner.storePicture.html, loads a remote image; to time another creative, pass the
+ * name of the asset and, for relative URLs, the base URL it should load from:
+ * <pre>
+ * adb shell am start -n org.nexage.sourcekit.mraiddemo/.LoadTimeActivity \
+ *     --es creative banner.storePicture.html --es baseUrl http://10.0.2.2:8000/
+ * </pre>
+ */
+public class LoadTimeActivity extends Activity implements MRAIDViewListener {
+
+	private final static String TAG = "LoadTimeActivity";
+
+	private final static int[] POLICIES = {
+			MRAIDSettings.CACHE_POLICY_KEEP,
+			MRAIDSettings.CACHE_POLICY_CLEAR_MEMORY,
+			MRAIDSettings.CACHE_POLICY_CLEAR_ON_SESSION_END,
+	};
+
+	private final static String[] POLICY_NAMES = {
+			"keep",
+			"clear memory",
+			"clear on session end",
+	};
+
+	private final static int ROUNDS = 5;
+
+	private final Handler handler = new Handler();
+
+	private String baseUrl;
+	private String content;
+
+	private FrameLayout adContainer;
+	private TextView resultsView;
+	private final StringBuilder results = new StringBuilder();
+
+	private MRAIDView mraidView;
+	private long loadStartMillis;
+	private boolean isSecondAd;
+	private int policyIndex;
+	private int round;
+	private final long[] secondAdMillis = new long[ROUNDS];
+	private int originalPolicy;
+
+	@Override
+	protected void onCreate(Bundle savedInstanceState) {
+		super.onCreate(savedInstanceState);
+		setContentView(R.layout.activity_load_time);
+		adContainer = (FrameLayout) findViewById(R.id.ad_container);
+		resultsView = (TextView) findViewById(R.id.results);
+
+		String creative = getIntent().getStringExtra("creative");
+		if (creative == null) {
+			creative = "banner.storePicture.html";
+		}
+		baseUrl = getIntent().getStringExtra("baseUrl");
+		if (baseUrl == null) {
+			baseUrl = "file:///android_asset/";
+		} else if (!baseUrl.endsWith("/")) {
+			baseUrl += "/";
+		}
+		try {
+			content = readAsset(creative);
+		} catch (IOException e) {
+			report("can't read " + creative + ": " + e);
+			return;
+		}
+
+		originalPolicy = MRAIDSettings.getCachePolicy();
+		report(creative + ", " + ROUNDS + " rounds per policy, second ad load time in ms:");
+		startRound();
+	}
+
+	@Override
+	protected void onDestroy() {
+		handler.removeCallbacksAndMessages(null);
+		if (mraidView != null) {
+			mraidView.destroy();
+			mraidView = null;
+		}
+		MRAIDSettings.setCachePolicy(originalPolicy);
+		super.onDestroy();
+	}
+
+	private String readAsset(String name) throws IOException {
+		InputStream is = getAssets().open(name);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+		try {
+			StringBuilder sb = new StringBuilder();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				sb.append(line).append('\n');
+			}
+			return sb.toString();
+		} finally {
+			reader.close();
+		}
+	}
+
+	private void startRound() {
+		MRAIDSettings.setCachePolicy(POLICIES[policyIndex]);
+
+		// start every round cold, whatever the previous one left behind
+		WebView webView = new WebView(this);
+		webView.clearCache(true);
+		webView.destroy();
+
+		isSecondAd = false;
+		loadAd();
+	}
+
+	private void loadAd() {
+		loadStartMillis = SystemClock.uptimeMillis();
+		mraidView = new MRAIDBanner(this, baseUrl, content, new String[0], this, null);
+		adContainer.addView(mraidView, new FrameLayout.LayoutParams(
+				ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+	}
+
+	@Override
+	public void mraidViewLoaded(MRAIDView view) {
+		if (view != mraidView) {
+			return;
+		}
+		final long loadMillis = SystemClock.uptimeMillis() - loadStartMillis;
+		// the ad isn't destroyed from inside its own callback
+		handler.post(new Runnable() {
+			@Override
+			public void run() {
+				onAdLoaded(loadMillis);
+			}
+		});
+	}
+
+	private void onAdLoaded(long loadMillis) {
+		adContainer.removeView(mraidView);
+		mraidView.destroy();
+		mraidView = null;
+
+		if (!isSecondAd) {
+			isSecondAd = true;
+			loadAd();
+			return;
+		}
+
+		secondAdMillis[round] = loadMillis;
+		if (++round < ROUNDS) {
+			startRound();
+			return;
+		}
+
+		long[] sorted = secondAdMillis.clone();
+		Arrays.sort(sorted);
+		report(String.format("%-22s median %5d, min %5d, max %5d", POLICY_NAMES[policyIndex],
+				sorted[ROUNDS / 2], sorted[0], sorted[ROUNDS - 1]));
+
+		round = 0;
+		if (++policyIndex < POLICIES.length) {
+			startRound();
+		} else {
+			MRAIDSettings.setCachePolicy(originalPolicy);
+			report("done");
+		}
+	}
+
+	private void report(String line) {
+		Log.i(TAG, line);
+		results.append(line).append('\n');
+		resultsView.setText(results);
+	}
+
+	@Override
+	public void mraidViewExpand(MRAIDView mraidView) {
+	}
+
+	@Override
+	public void mraidViewClose(MRAIDView mraidView) {
+	}
+
+	@Override
+	public boolean mraidViewResize(MRAIDView mraidView, int width, int height, int offsetX, int offsetY) {
+		return false;
+	}
+}
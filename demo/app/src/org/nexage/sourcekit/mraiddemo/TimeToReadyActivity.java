@@ -0,0 +1,192 @@
+package org.nexage.sourcekit.mraiddemo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.Arrays;
+
+import org.nexage.sourcekit.mraid.MRAIDBanner;
+import org.nexage.sourcekit.mraid.MRAIDView;
+import org.nexage.sourcekit.mraid.MRAIDViewListener;
+
+import android.app.Activity;
+import android.os.Bundle;
+import android.os.Handler;
+import android.util.Log;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+/**
+ * Measures time to ready, MRAIDView.getTimeToReady: the time from starting to load a
+ * creative until mraid.js fires the ready event. This covers processing the creative,
+ * the navigation, serving mraid.js and running it.
+ * <p/>
+ * Each creative is loaded and destroyed a number of times, and the median, min and
+ * max are reported on the screen and in the log. The first load of all is a warm-up
+ * and isn't counted. The demo banners that do nothing on their own are used, unless
+ * an asset is passed:
+ * <pre>
+ * adb shell am start -n org.nexage.sourcekit.mraiddemo/.TimeToReadyActivity \
+ *     --es creative banner.simple.html
+ * </pre>
+ */
+public class TimeToReadyActivity extends Activity implements MRAIDViewListener {
+
+	private final static String TAG = "TimeToReadyActivity";
+
+	private final static String[] CREATIVES = {
+			"banner.simple.html",
+			"banner.ready.html",
+			"banner.fragment.html",
+			"banner.noMraidJS.html",
+			"banner.setOrientationProperties.html",
+	};
+
+	private final static int ROUNDS = 10;
+
+	// how often to check whether the ready event has fired, and for how long
+	private final static long POLL_INTERVAL_MILLIS = 16;
+	private final static long TIMEOUT_MILLIS = 10000;
+
+	private final Handler handler = new Handler();
+
+	private FrameLayout adContainer;
+	private TextView resultsView;
+	private final StringBuilder results = new StringBuilder();
+
+	private String[] creatives;
+	private String content;
+	private int creativeIndex;
+	private int round = -1;
+	private final long[] timesToReady = new long[ROUNDS];
+
+	private MRAIDView mraidView;
+	private long waitedMillis;
+
+	private final Runnable pollRunnable = new Runnable() {
+		@Override
+		public void run() {
+			pollReady();
+		}
+	};
+
+	@Override
+	protected void onCreate(Bundle savedInstanceState) {
+		super.onCreate(savedInstanceState);
+		setContentView(R.layout.activity_load_time);
+		adContainer = (FrameLayout) findViewById(R.id.ad_container);
+		resultsView = (TextView) findViewById(R.id.results);
+
+		String creative = getIntent().getStringExtra("creative");
+		creatives = creative != null ? new String[] { creative } : CREATIVES;
+		report(ROUNDS + " loads per creative, time to ready in ms:");
+		startCreative();
+	}
+
+	@Override
+	protected void onDestroy() {
+		handler.removeCallbacksAndMessages(null);
+		if (mraidView != null) {
+			mraidView.destroy();
+			mraidView = null;
+		}
+		super.onDestroy();
+	}
+
+	private String readAsset(String name) throws IOException {
+		InputStream is = getAssets().open(name);
+		BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+		try {
+			StringBuilder sb = new StringBuilder();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				sb.append(line).append('\n');
+			}
+			return sb.toString();
+		} finally {
+			reader.close();
+		}
+	}
+
+	private void startCreative() {
+		try {
+			content = readAsset(creatives[creativeIndex]);
+		} catch (IOException e) {
+			report("can't read " + creatives[creativeIndex] + ": " + e);
+			return;
+		}
+		loadAd();
+	}
+
+	private void loadAd() {
+		mraidView = new MRAIDBanner(this, "file:///android_asset/", content, new String[0], this, null);
+		adContainer.addView(mraidView, new FrameLayout.LayoutParams(
+				ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+		waitedMillis = 0;
+		handler.postDelayed(pollRunnable, POLL_INTERVAL_MILLIS);
+	}
+
+	// The ready event can come after mraidViewLoaded, once the banner is laid out, so poll for it.
+	private void pollReady() {
+		long timeToReady = mraidView.getTimeToReady();
+		if (timeToReady < 0) {
+			waitedMillis += POLL_INTERVAL_MILLIS;
+			if (waitedMillis < TIMEOUT_MILLIS) {
+				handler.postDelayed(pollRunnable, POLL_INTERVAL_MILLIS);
+				return;
+			}
+			report(creatives[creativeIndex] + " never got ready");
+			timeToReady = TIMEOUT_MILLIS;
+		}
+
+		adContainer.removeView(mraidView);
+		mraidView.destroy();
+		mraidView = null;
+
+		// the very first load warms up the WebView, and isn't counted
+		if (round >= 0) {
+			timesToReady[round] = timeToReady;
+		}
+		if (++round < ROUNDS) {
+			loadAd();
+			return;
+		}
+
+		long[] sorted = timesToReady.clone();
+		Arrays.sort(sorted);
+		report(String.format("%-38s median %5d, min %5d, max %5d", creatives[creativeIndex],
+				sorted[ROUNDS / 2], sorted[0], sorted[ROUNDS - 1]));
+
+		round = 0;
+		if (++creativeIndex < creatives.length) {
+			startCreative();
+		} else {
+			report("done");
+		}
+	}
+
+	private void report(String line) {
+		Log.i(TAG, line);
+		results.append(line).append('\n');
+		resultsView.setText(results);
+	}
+
+	@Override
+	public void mraidViewLoaded(MRAIDView mraidView) {
+	}
+
+	@Override
+	public void mraidViewExpand(MRAIDView mraidView) {
+	}
+
+	@Override
+	public void mraidViewClose(MRAIDView mraidView) {
+	}
+
+	@Override
+	public boolean mraidViewResize(MRAIDView mraidView, int width, int height, int offsetX, int offsetY) {
+		return false;
+	}
+}
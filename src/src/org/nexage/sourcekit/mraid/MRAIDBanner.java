@@ -6,6 +6,8 @@ import android.graphics.Color;
 import android.view.ViewGroup;
 import android.webkit.WebView;
 
+import org.nexage.sourcekit.mraid.internal.MRAIDLog;
+
 /**
  * Created by emorypetermann on 3/22/16.
  */
@@ -28,6 +30,59 @@ public class MRAIDBanner extends MRAIDView {
         addView(webView, new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
     }
 
+    // Creates an empty banner. Use load to show a creative in it.
+    public MRAIDBanner(
+            Context context,
+            String[] supportedNativeFeatures,
+            MRAIDViewListener viewListener,
+            MRAIDNativeFeatureListener nativeFeatureListener
+    ) {
+        this(context, null, null, supportedNativeFeatures, viewListener, nativeFeatureListener);
+    }
+
+    /**
+     * Shows another creative in this banner, reusing its WebView. Whatever the banner
+     * was showing is unloaded, and the creative goes through the usual MRAID states
+     * from loading; the listener's mraidViewLoaded is called again when it is loaded.
+     */
+    public void load(String baseUrl, String data) {
+        if (webView == null) {
+            MRAIDLog.w(TAG, "load called after destroy");
+            return;
+        }
+        resetState();
+        loadContent(baseUrl, data);
+    }
+
+    // Like load, for a creative streamed from the source (see MRAIDCreativeSource).
+    public void load(String baseUrl, MRAIDCreativeSource source) {
+        if (webView == null) {
+            MRAIDLog.w(TAG, "load called after destroy");
+            return;
+        }
+        resetState();
+        loadContent(baseUrl, source);
+    }
+
+    // Like load, for a creative in a bundle (see MRAIDCreativeBundle).
+    public void load(MRAIDCreativeBundle bundle) {
+        if (webView == null) {
+            MRAIDLog.w(TAG, "load called after destroy");
+            return;
+        }
+        resetState();
+        loadContent(bundle);
+    }
+
+    // Unloads the creative, leaving the banner empty until the next load.
+    public void reset() {
+        if (webView == null) {
+            return;
+        }
+        resetState();
+        clearContent();
+    }
+
     @Override
     public boolean onBackPressed() {
         return state != STATE_DEFAULT && super.onBackPressed();
@@ -0,0 +1,93 @@
+package org.nexage.sourcekit.mraid;
+
+import android.content.Context;
+
+import org.nexage.sourcekit.mraid.internal.MRAIDLog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/******************************************************************************
+ * Binds creatives to reusable MRAIDBanners in a scrolling feed, such as the
+ * cells of a RecyclerView or ListView adapter.
+ *
+ * Create banners with createBanner (in onCreateViewHolder), show creatives with
+ * bind (in onBindViewHolder) and call unbind when a banner is recycled. Binding
+ * the creative a banner already shows does nothing, so a banner that is merely
+ * detached and reattached, or rebound after notifyDataSetChanged, keeps running
+ * without being reloaded. Don't destroy banners when they are detached; call
+ * destroy when the feed goes away.
+ ******************************************************************************/
+
+public class MRAIDBannerBinder {
+
+    private final static String TAG = "MRAIDBannerBinder";
+
+    private final Context context;
+    private final String[] supportedNativeFeatures;
+    private final MRAIDViewListener viewListener;
+    private final MRAIDNativeFeatureListener nativeFeatureListener;
+
+    private final List<MRAIDBanner> banners = new ArrayList<MRAIDBanner>();
+
+    // the ID of the creative each bound banner shows
+    private final Map<MRAIDBanner, String> boundCreatives = new HashMap<MRAIDBanner, String>();
+
+    public MRAIDBannerBinder(
+            Context context,
+            String[] supportedNativeFeatures,
+            MRAIDViewListener viewListener,
+            MRAIDNativeFeatureListener nativeFeatureListener
+    ) {
+        this.context = context;
+        this.supportedNativeFeatures = supportedNativeFeatures;
+        this.viewListener = viewListener;
+        this.nativeFeatureListener = nativeFeatureListener;
+    }
+
+    // Creates an empty banner that this binder owns.
+    public MRAIDBanner createBanner() {
+        MRAIDBanner banner = new MRAIDBanner(context, supportedNativeFeatures, viewListener, nativeFeatureListener);
+        banners.add(banner);
+        return banner;
+    }
+
+    /**
+     * Shows the creative in the banner, unless the banner shows it already.
+     * creativeId identifies the creative, e.g. the ID of the ad in the feed.
+     * Returns whether the creative was loaded.
+     */
+    public boolean bind(MRAIDBanner banner, String creativeId, String baseUrl, String data) {
+        if (creativeId.equals(boundCreatives.get(banner))) {
+            MRAIDLog.d(TAG, "already bound to " + creativeId);
+            return false;
+        }
+        MRAIDLog.d(TAG, "binding " + creativeId);
+        boundCreatives.put(banner, creativeId);
+        banner.load(baseUrl, data);
+        return true;
+    }
+
+    // Unloads the banner's creative, so it stops running while the banner waits to be bound again.
+    public void unbind(MRAIDBanner banner) {
+        if (boundCreatives.remove(banner) != null) {
+            banner.reset();
+        }
+    }
+
+    // Returns the ID of the creative the banner shows, or null if it is not bound.
+    public String getBoundCreativeId(MRAIDBanner banner) {
+        return boundCreatives.get(banner);
+    }
+
+    // Destroys all the banners created by this binder.
+    public void destroy() {
+        for (MRAIDBanner banner : banners) {
+            banner.destroy();
+        }
+        banners.clear();
+        boundCreatives.clear();
+    }
+}
@@ -0,0 +1,278 @@
+package org.nexage.sourcekit.mraid;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.nexage.sourcekit.mraid.internal.MRAIDLog;
+
+/******************************************************************************
+ * A banner slot that refreshes without going blank.
+ *
+ * The refresher holds two MRAIDBanners. The next creative is loaded into the
+ * hidden one, and the two are swapped only once it has loaded, so the old
+ * creative stays on the screen until the new one can replace it. The banner
+ * that was swapped out is unloaded and reused for the following refresh.
+ *
+ * The hidden banner is kept visible under the front one, only fully
+ * transparent, because a WebView that is not visible is not rastered. While it
+ * loads it is also pre-rastered and exempt from the offscreen pause (see
+ * MRAIDView.setLoadingOffscreen), so the new creative is already drawn when it
+ * is swapped in.
+ *
+ * The refresh interval only counts the time the creative is actually viewable:
+ * at least half of it on the screen, its window visible and the ad not expanded
+ * or resized. When the interval is up, the MRAIDRefreshListener is asked for
+ * the next creative.
+ ******************************************************************************/
+
+public class MRAIDBannerRefresher extends FrameLayout {
+
+    private final static String TAG = "MRAIDBannerRefresher";
+
+    public final static long DEFAULT_REFRESH_INTERVAL_MILLIS = 30000;
+
+    // how often viewability is sampled while the refresher is attached and its window is visible
+    private final static long VIEWABILITY_CHECK_INTERVAL_MILLIS = 1000;
+
+    // the banner on the screen, and the one the next creative is loaded into
+    private MRAIDBanner front;
+    private MRAIDBanner back;
+
+    private boolean isFrontLoaded;
+    private boolean isBackLoading;
+    private boolean isBackLoaded;
+
+    private final MRAIDViewListener viewListener;
+    private MRAIDRefreshListener refreshListener;
+
+    private long refreshIntervalMillis = DEFAULT_REFRESH_INTERVAL_MILLIS;
+    private long viewableMillis;
+    private long lastCheckMillis;
+    private boolean isRefreshRequested;
+    private boolean isChecking;
+    private boolean isDestroyed;
+
+    private final Rect visibleRect = new Rect();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable checkRunnable = new Runnable() {
+        @Override
+        public void run() {
+            checkViewable();
+            handler.postDelayed(this, VIEWABILITY_CHECK_INTERVAL_MILLIS);
+        }
+    };
+
+    public MRAIDBannerRefresher(
+            Context context,
+            String[] supportedNativeFeatures,
+            MRAIDViewListener viewListener,
+            MRAIDNativeFeatureListener nativeFeatureListener
+    ) {
+        super(context);
+        this.viewListener = viewListener;
+
+        BannerListener bannerListener = new BannerListener();
+        front = new MRAIDBanner(context, supportedNativeFeatures, bannerListener, nativeFeatureListener);
+        back = new MRAIDBanner(context, supportedNativeFeatures, bannerListener, nativeFeatureListener);
+        back.setAlpha(0f);
+        addView(back, new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        addView(front, new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+    }
+
+    public void setRefreshListener(MRAIDRefreshListener refreshListener) {
+        this.refreshListener = refreshListener;
+        updateChecking();
+    }
+
+    public void setRefreshInterval(long refreshIntervalMillis) {
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    public long getRefreshInterval() {
+        return refreshIntervalMillis;
+    }
+
+    // How long the current creative has been viewable so far.
+    public long getViewableTime() {
+        return viewableMillis;
+    }
+
+    // The banner on the screen.
+    public MRAIDBanner getBanner() {
+        return front;
+    }
+
+    /**
+     * Shows a creative. The first one is loaded straight into the visible banner;
+     * later ones are loaded into the hidden banner and swapped in once loaded. If a
+     * refresh is already loading, it is replaced.
+     */
+    public void load(String baseUrl, String data) {
+        if (isDestroyed) {
+            MRAIDLog.w(TAG, "load called after destroy");
+            return;
+        }
+        if (!isFrontLoaded && !isBackLoading && !isBackLoaded) {
+            MRAIDLog.d(TAG, "loading first creative");
+            front.load(baseUrl, data);
+            return;
+        }
+        MRAIDLog.d(TAG, "loading next creative");
+        isBackLoading = true;
+        isBackLoaded = false;
+        back.setLoadingOffscreen(true);
+        back.load(baseUrl, data);
+    }
+
+    public void destroy() {
+        if (isDestroyed) {
+            return;
+        }
+        isDestroyed = true;
+        updateChecking();
+        front.destroy();
+        back.destroy();
+    }
+
+    /**************************************************************************
+     * Swapping
+     **************************************************************************/
+
+    // Swaps the banners if the next creative has loaded, unless the current one is in use.
+    private void swapIfReady() {
+        if (!isBackLoaded || isDestroyed) {
+            return;
+        }
+        if (front.state == MRAIDView.STATE_EXPANDED || front.state == MRAIDView.STATE_RESIZED) {
+            MRAIDLog.d(TAG, "swap deferred until the ad is closed");
+            return;
+        }
+        MRAIDLog.d(TAG, "swapping");
+        MRAIDBanner old = front;
+        front = back;
+        back = old;
+        isBackLoaded = false;
+        isFrontLoaded = true;
+
+        // Both changes are made before the next frame is drawn, so there is no frame without an ad.
+        front.setLoadingOffscreen(false);
+        front.setAlpha(1f);
+        back.setAlpha(0f);
+        bringChildToFront(front);
+        back.reset();
+
+        viewableMillis = 0;
+        isRefreshRequested = false;
+        lastCheckMillis = SystemClock.uptimeMillis();
+        if (viewListener != null) {
+            viewListener.mraidViewLoaded(front);
+        }
+    }
+
+    private class BannerListener implements MRAIDViewListener {
+
+        @Override
+        public void mraidViewLoaded(MRAIDView mraidView) {
+            if (mraidView == back) {
+                if (isBackLoading) {
+                    isBackLoading = false;
+                    isBackLoaded = true;
+                    swapIfReady();
+                }
+                return;
+            }
+            isFrontLoaded = true;
+            if (viewListener != null) {
+                viewListener.mraidViewLoaded(mraidView);
+            }
+        }
+
+        @Override
+        public void mraidViewExpand(MRAIDView mraidView) {
+            if (viewListener != null) {
+                viewListener.mraidViewExpand(mraidView);
+            }
+        }
+
+        @Override
+        public void mraidViewClose(MRAIDView mraidView) {
+            if (viewListener != null) {
+                viewListener.mraidViewClose(mraidView);
+            }
+            if (mraidView == front) {
+                swapIfReady();
+            }
+        }
+
+        @Override
+        public boolean mraidViewResize(MRAIDView mraidView, int width, int height, int offsetX, int offsetY) {
+            return viewListener != null && viewListener.mraidViewResize(mraidView, width, height, offsetX, offsetY);
+        }
+    }
+
+    /**************************************************************************
+     * Viewable time
+     **************************************************************************/
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        updateChecking();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        updateChecking();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateChecking();
+    }
+
+    // Samples viewability only while it can change, i.e. while attached to a visible window.
+    private void updateChecking() {
+        boolean shouldCheck = !isDestroyed && refreshListener != null && getWindowToken() != null
+                && getWindowVisibility() == View.VISIBLE;
+        if (shouldCheck == isChecking) {
+            return;
+        }
+        isChecking = shouldCheck;
+        if (shouldCheck) {
+            lastCheckMillis = SystemClock.uptimeMillis();
+            handler.postDelayed(checkRunnable, VIEWABILITY_CHECK_INTERVAL_MILLIS);
+        } else {
+            handler.removeCallbacks(checkRunnable);
+        }
+    }
+
+    private void checkViewable() {
+        long now = SystemClock.uptimeMillis();
+        if (isViewable()) {
+            viewableMillis += now - lastCheckMillis;
+        }
+        lastCheckMillis = now;
+        if (viewableMillis >= refreshIntervalMillis && !isRefreshRequested && !isBackLoading && !isBackLoaded) {
+            MRAIDLog.d(TAG, "refresh due after " + viewableMillis + "ms viewable");
+            isRefreshRequested = true;
+            refreshListener.mraidRefreshDue(this);
+        }
+    }
+
+    private boolean isViewable() {
+        if (!isFrontLoaded || front.state != MRAIDView.STATE_DEFAULT || !isShown()) {
+            return false;
+        }
+        long area = (long) getWidth() * getHeight();
+        return area > 0 && getGlobalVisibleRect(visibleRect)
+                && 2L * visibleRect.width() * visibleRect.height() >= area;
+    }
+}
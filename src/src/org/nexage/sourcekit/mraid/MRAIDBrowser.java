@@ -43,6 +43,10 @@ public class MRAIDBrowser extends Activity {
     private ImageButton forwardButton;
     private ImageButton refreshButton;
     private ImageButton closeButton;
+
+    // size of the button images, so navigation reuses the cached bitmaps
+    private int buttonImageWidth;
+    private int buttonImageHeight;
     
     private ArrayList<String> supportedNativeFeatures;
     
@@ -112,7 +116,7 @@ public class MRAIDBrowser extends Activity {
 		buttonLayout.setLayoutParams(params);
 		buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
 		buttonLayout.setPadding(0, 0, 0, 0);
-        Drawable backgroundDrawable = Assets.getDrawableFromBase64(getResources(), Assets.bkgrnd);
+        Drawable backgroundDrawable = Assets.getDrawable(getResources(), Assets.bkgrnd);
         buttonLayout.setBackgroundDrawable(backgroundDrawable);
 		buttonLayout.setId(View.generateViewId());
 
@@ -121,6 +125,8 @@ public class MRAIDBrowser extends Activity {
 		Log.d(TAG, "button size " + buttonWidth + "x" + buttonHeight + " min(" + buttonWidth/2 + "," + screenHeight/10 + ")");
 		int padding = buttonHeight >>> 3;
 		Log.d(TAG, "padding " + padding);
+		buttonImageWidth = buttonWidth;
+		buttonImageHeight = buttonHeight - 2 * padding;
 		
 		backButton    = createButton(buttonWidth, buttonHeight, padding, Assets.unleftarrow);
 		forwardButton = createButton(buttonWidth, buttonHeight, padding, Assets.unrightarrow);
@@ -145,7 +151,7 @@ public class MRAIDBrowser extends Activity {
     
 	ImageButton createButton(int width, int height, int padding, String pngSrc) {
 		ImageButton button = new ImageButton(this);
-		Drawable drawable = Assets.getDrawableFromBase64(getResources(), pngSrc);
+		Drawable drawable = getButtonDrawable(pngSrc);
 		button.setImageDrawable(drawable);
 		LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(width, height);
 		params.gravity = Gravity.CENTER_VERTICAL;
@@ -157,6 +163,10 @@ public class MRAIDBrowser extends Activity {
 		return button;
 	}
     
+	private Drawable getButtonDrawable(String pngSrc) {
+		return Assets.getDrawable(getResources(), pngSrc, buttonImageWidth, buttonImageHeight);
+	}
+
     @SuppressLint("SetJavaScriptEnabled")
 	private void initializeWebView(Intent intent) {
         WebSettings webSettings = webView.getSettings();
@@ -223,7 +233,7 @@ public class MRAIDBrowser extends Activity {
             @Override
             public void onPageStarted(WebView view, String url, Bitmap favicon) {
                 super.onPageStarted(view, url, favicon);
-                Drawable forwardDrawable = Assets.getDrawableFromBase64(getResources(), Assets.unrightarrow);
+                Drawable forwardDrawable = getButtonDrawable(Assets.unrightarrow);
                 forwardButton.setImageDrawable(forwardDrawable);
             }
             
@@ -233,17 +243,17 @@ public class MRAIDBrowser extends Activity {
                 
                 Drawable backDrawable;
                 if (!view.canGoBack()) {
-                	backDrawable = Assets.getDrawableFromBase64(getResources(), Assets.unleftarrow);
+                	backDrawable = getButtonDrawable(Assets.unleftarrow);
                 } else {
-                	backDrawable = Assets.getDrawableFromBase64(getResources(), Assets.leftarrow);
+                	backDrawable = getButtonDrawable(Assets.leftarrow);
                 }
                 backButton.setImageDrawable(backDrawable);
                 
                 Drawable forwardDrawable;
                 if (!view.canGoForward()) {
-                	forwardDrawable = Assets.getDrawableFromBase64(getResources(), Assets.unrightarrow);
+                	forwardDrawable = getButtonDrawable(Assets.unrightarrow);
                 } else {
-                	forwardDrawable = Assets.getDrawableFromBase64(getResources(), Assets.rightarrow);
+                	forwardDrawable = getButtonDrawable(Assets.rightarrow);
                 }
                 forwardButton.setImageDrawable(forwardDrawable);
             }
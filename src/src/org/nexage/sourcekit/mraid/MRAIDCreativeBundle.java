@@ -0,0 +1,464 @@
+package org.nexage.sourcekit.mraid;
+
+import android.webkit.MimeTypeMap;
+import android.webkit.WebResourceResponse;
+
+import org.nexage.sourcekit.mraid.internal.MRAIDContentFetcher;
+import org.nexage.sourcekit.mraid.internal.MRAIDCreativeStream;
+import org.nexage.sourcekit.mraid.internal.MRAIDLog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/******************************************************************************
+ * A creative packaged as a single ZIP archive (the HTML, scripts, images and
+ * any part 2 pages), downloaded ahead of time so that showing it needs no
+ * network at all.
+ *
+ * The archive is memory-mapped and only its central directory is read up
+ * front, into an index of entries. The creative is loaded from a synthetic
+ * https://bundle.local/ origin and every request under it is answered straight
+ * from the mapped file: stored entries without copying, deflated ones through
+ * an Inflater. Nothing is extracted to disk. Relative URLs, including those
+ * passed to mraid.expand, resolve into the bundle. URL paths are percent-decoded
+ * and their . and .. segments resolved before they are looked up, and entry
+ * names are normalized the same way.
+ *
+ * A bundle can be shared by several ads and used from any thread. ZIP64
+ * archives are not supported.
+ ******************************************************************************/
+
+public class MRAIDCreativeBundle {
+
+    private final static String TAG = "MRAIDCreativeBundle";
+
+    public final static String ORIGIN = "https://bundle.local/";
+    public final static String DEFAULT_MAIN_ENTRY = "index.html";
+
+    private final static int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private final static int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private final static int END_SIGNATURE = 0x06054b50;
+    private final static int LOCAL_HEADER_SIZE = 30;
+    private final static int CENTRAL_HEADER_SIZE = 46;
+    private final static int END_SIZE = 22;
+    private final static int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private final static int METHOD_STORED = 0;
+    private final static int METHOD_DEFLATED = 8;
+
+    // deflate can't do better than about 1032:1, so a larger claimed size means the archive is corrupt
+    private final static int MAX_DEFLATE_RATIO = 1032;
+
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final static AtomicInteger count = new AtomicInteger();
+
+    private static class Entry {
+        int method;
+        int compressedSize;
+        int size;
+        int localHeaderOffset;
+    }
+
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries;
+    private final String mainEntry;
+    private final String baseUrl;
+
+    public static MRAIDCreativeBundle open(File file) throws IOException {
+        return open(file, DEFAULT_MAIN_ENTRY);
+    }
+
+    // mainEntry is the path of the creative's HTML inside the archive.
+    public static MRAIDCreativeBundle open(File file, String mainEntry) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        ByteBuffer buffer;
+        try {
+            // the mapping stays valid after the channel is closed
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        } finally {
+            raf.close();
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        Map<String, Entry> entries;
+        try {
+            entries = readIndex(buffer);
+        } catch (RuntimeException e) {
+            // readIndex checks every offset it reads, but a corrupt archive must fail the
+            // load rather than crash it, whatever got past the checks
+            throw new IOException("corrupt ZIP archive", e);
+        }
+        MRAIDCreativeBundle bundle = new MRAIDCreativeBundle(buffer, entries, mainEntry);
+        if (!bundle.entries.containsKey(mainEntry)) {
+            throw new IOException("bundle has no " + mainEntry);
+        }
+        MRAIDLog.d(TAG, "opened " + file.getName() + " with " + bundle.entries.size() + " entries");
+        return bundle;
+    }
+
+    private MRAIDCreativeBundle(ByteBuffer buffer, Map<String, Entry> entries, String mainEntry) {
+        this.buffer = buffer;
+        this.entries = entries;
+        this.mainEntry = mainEntry;
+        this.baseUrl = ORIGIN + count.incrementAndGet() + "/";
+    }
+
+    // The URL the bundle's entries are served under, ending with a slash.
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public String getMainUrl() {
+        return baseUrl + mainEntry;
+    }
+
+    public Set<String> getEntryNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public boolean contains(String url) {
+        return getEntry(url) != null;
+    }
+
+    // Returns the entry behind a URL under getBaseUrl, or null if there is none.
+    private Entry getEntry(String url) {
+        if (!url.startsWith(baseUrl)) {
+            return null;
+        }
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query != -1) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment != -1 && fragment < end) {
+            end = fragment;
+        }
+        String path = percentDecode(url.substring(baseUrl.length(), end));
+        if (path == null) {
+            return null;
+        }
+        path = normalizePath(path);
+        return path == null ? null : entries.get(path);
+    }
+
+    // Decodes %XX escapes as UTF-8, leaving '+' alone. Returns null for a broken escape.
+    private static String percentDecode(String s) {
+        if (s.indexOf('%') == -1) {
+            return s;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(s.length());
+        int i = 0;
+        while (i < s.length()) {
+            int escape = s.indexOf('%', i);
+            if (escape == -1) {
+                escape = s.length();
+            }
+            if (escape > i) {
+                byte[] run = s.substring(i, escape).getBytes(UTF_8);
+                bytes.write(run, 0, run.length);
+                i = escape;
+                continue;
+            }
+            if (i + 2 >= s.length()) {
+                return null;
+            }
+            int high = Character.digit(s.charAt(i + 1), 16);
+            int low = Character.digit(s.charAt(i + 2), 16);
+            if (high == -1 || low == -1) {
+                return null;
+            }
+            bytes.write((high << 4) | low);
+            i += 3;
+        }
+        return new String(bytes.toByteArray(), UTF_8);
+    }
+
+    // Drops empty and . segments and resolves .. segments. Returns null for a path that
+    // climbs out of the bundle.
+    private static String normalizePath(String path) {
+        if (path.indexOf('.') == -1 && path.indexOf("//") == -1 && !path.startsWith("/")) {
+            return path;
+        }
+        List<String> segments = new ArrayList<String>();
+        int start = 0;
+        while (start <= path.length()) {
+            int slash = path.indexOf('/', start);
+            if (slash == -1) {
+                slash = path.length();
+            }
+            String segment = path.substring(start, slash);
+            if (segment.equals("..")) {
+                if (segments.isEmpty()) {
+                    return null;
+                }
+                segments.remove(segments.size() - 1);
+            } else if (!segment.isEmpty() && !segment.equals(".")) {
+                segments.add(segment);
+            }
+            start = slash + 1;
+        }
+        StringBuilder normalized = new StringBuilder(path.length());
+        for (String segment : segments) {
+            if (normalized.length() > 0) {
+                normalized.append('/');
+            }
+            normalized.append(segment);
+        }
+        return normalized.toString();
+    }
+
+    /**************************************************************************
+     * Serving entries
+     **************************************************************************/
+
+    /**
+     * The response for a URL under getBaseUrl, or an empty one if the bundle has no
+     * such entry (so the request never goes to the network). HTML entries get
+     * mraid.js and our head content added at their start.
+     */
+    WebResourceResponse getResponse(String url) {
+        Entry entry = getEntry(url);
+        if (entry == null) {
+            MRAIDLog.w(TAG, "not in bundle: " + url);
+            return new WebResourceResponse("text/plain", null, MRAIDCreativeStream.empty());
+        }
+        String mimeType = getMimeType(url);
+        try {
+            InputStream is = open(entry);
+            if ("text/html".equals(mimeType)) {
+                return new WebResourceResponse(mimeType, "UTF-8", MRAIDCreativeStream.wrap(is, null));
+            }
+            return new WebResourceResponse(mimeType, null, is);
+        } catch (IOException e) {
+            MRAIDLog.e(TAG, "reading " + url + " failed " + e.getLocalizedMessage());
+            return new WebResourceResponse(mimeType, null, MRAIDCreativeStream.empty());
+        }
+    }
+
+    // Reads a (small) text entry, such as a part 2 page, as UTF-8. Returns null if it can't be read.
+    String readString(String url) {
+        Entry entry = getEntry(url);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.size > MRAIDContentFetcher.MAX_CONTENT_BYTES) {
+            MRAIDLog.e(TAG, "not reading " + url + ", " + entry.size + " bytes is over the limit of "
+                    + MRAIDContentFetcher.MAX_CONTENT_BYTES);
+            return null;
+        }
+        try {
+            InputStream is = open(entry);
+            try {
+                byte[] data = new byte[entry.size];
+                int length = 0;
+                int count;
+                while (length < data.length && (count = is.read(data, length, data.length - length)) != -1) {
+                    length += count;
+                }
+                return new String(data, 0, length, UTF_8);
+            } finally {
+                is.close();
+            }
+        } catch (IOException e) {
+            MRAIDLog.e(TAG, "reading " + url + " failed " + e.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    private InputStream open(Entry entry) throws IOException {
+        ByteBuffer data = buffer.duplicate();
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        int offset = entry.localHeaderOffset;
+        if ((long) offset + LOCAL_HEADER_SIZE > data.limit() || data.getInt(offset) != LOCAL_HEADER_SIGNATURE) {
+            throw new IOException("bad local header");
+        }
+        int start = offset + LOCAL_HEADER_SIZE + (data.getShort(offset + 26) & 0xFFFF)
+                + (data.getShort(offset + 28) & 0xFFFF);
+        if ((long) start + entry.compressedSize > data.limit()) {
+            throw new IOException("truncated entry");
+        }
+        data.limit(start + entry.compressedSize);
+        data.position(start);
+        InputStream is = new ByteBufferInputStream(data.slice());
+        if (entry.method == METHOD_DEFLATED) {
+            return new EntryInflaterInputStream(is);
+        }
+        return is;
+    }
+
+    private static String getMimeType(String url) {
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query != -1) {
+            end = query;
+        }
+        int dot = url.lastIndexOf('.', end);
+        int slash = url.lastIndexOf('/', end);
+        if (dot > slash) {
+            String extension = url.substring(dot + 1, end).toLowerCase(Locale.US);
+            if (extension.equals("htm") || extension.equals("html")) {
+                return "text/html";
+            }
+            if (extension.equals("js")) {
+                return "application/javascript";
+            }
+            String mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
+            if (mimeType != null) {
+                return mimeType;
+            }
+        }
+        return "application/octet-stream";
+    }
+
+    // Frees the Inflater's native memory on close, which InflaterInputStream only does for
+    // an Inflater it created itself.
+    private static class EntryInflaterInputStream extends InflaterInputStream {
+
+        private boolean isClosed;
+
+        EntryInflaterInputStream(InputStream in) {
+            super(in, new Inflater(true));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**************************************************************************
+     * Index
+     **************************************************************************/
+
+    private static Map<String, Entry> readIndex(ByteBuffer buffer) throws IOException {
+        int limit = buffer.limit();
+
+        // The end of central directory record is at the very end, followed only by a comment.
+        int end = -1;
+        for (int i = limit - END_SIZE; i >= Math.max(0, limit - END_SIZE - MAX_COMMENT_SIZE); i--) {
+            if (buffer.getInt(i) == END_SIGNATURE) {
+                end = i;
+                break;
+            }
+        }
+        if (end == -1) {
+            throw new IOException("not a ZIP archive");
+        }
+        int entryCount = buffer.getShort(end + 10) & 0xFFFF;
+        long directoryOffset = buffer.getInt(end + 16) & 0xFFFFFFFFL;
+        if (entryCount == 0xFFFF || directoryOffset == 0xFFFFFFFFL) {
+            throw new IOException("ZIP64 archives are not supported");
+        }
+        if (directoryOffset > end) {
+            throw new IOException("bad central directory");
+        }
+
+        Map<String, Entry> entries = new HashMap<String, Entry>(entryCount * 2);
+        int pos = (int) directoryOffset;
+        for (int n = 0; n < entryCount; n++) {
+            if (pos + CENTRAL_HEADER_SIZE > limit || buffer.getInt(pos) != CENTRAL_HEADER_SIGNATURE) {
+                throw new IOException("bad central directory");
+            }
+            Entry entry = new Entry();
+            entry.method = buffer.getShort(pos + 10) & 0xFFFF;
+            long compressedSize = buffer.getInt(pos + 20) & 0xFFFFFFFFL;
+            long size = buffer.getInt(pos + 24) & 0xFFFFFFFFL;
+            int nameLength = buffer.getShort(pos + 28) & 0xFFFF;
+            int extraLength = buffer.getShort(pos + 30) & 0xFFFF;
+            int commentLength = buffer.getShort(pos + 32) & 0xFFFF;
+            long localHeaderOffset = buffer.getInt(pos + 42) & 0xFFFFFFFFL;
+            if (compressedSize > Integer.MAX_VALUE || size > Integer.MAX_VALUE || localHeaderOffset > Integer.MAX_VALUE) {
+                throw new IOException("ZIP64 archives are not supported");
+            }
+            if (pos + CENTRAL_HEADER_SIZE + nameLength > limit) {
+                throw new IOException("bad central directory");
+            }
+            boolean isBadSize = entry.method == METHOD_STORED ? size != compressedSize
+                    : entry.method == METHOD_DEFLATED && size > compressedSize * MAX_DEFLATE_RATIO + 64;
+            if (isBadSize) {
+                throw new IOException("bad entry size");
+            }
+            entry.compressedSize = (int) compressedSize;
+            entry.size = (int) size;
+            entry.localHeaderOffset = (int) localHeaderOffset;
+
+            byte[] name = new byte[nameLength];
+            ByteBuffer nameBuffer = buffer.duplicate();
+            nameBuffer.position(pos + CENTRAL_HEADER_SIZE);
+            nameBuffer.get(name);
+            String path = new String(name, UTF_8);
+
+            boolean isDirectory = path.endsWith("/");
+            String normalized = normalizePath(path);
+            if (isDirectory) {
+                // nothing to serve
+            } else if (normalized == null || normalized.isEmpty()) {
+                MRAIDLog.w(TAG, "skipping " + path + ", not a path inside the bundle");
+            } else if (entry.method == METHOD_STORED || entry.method == METHOD_DEFLATED) {
+                entries.put(normalized, entry);
+            } else {
+                MRAIDLog.w(TAG, "skipping " + path + ", unsupported compression method " + entry.method);
+            }
+            pos += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return entries;
+    }
+}
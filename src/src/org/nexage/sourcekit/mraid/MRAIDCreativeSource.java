@@ -0,0 +1,23 @@
+package org.nexage.sourcekit.mraid;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface MRAIDCreativeSource {
+
+    /******************************************************************************
+     * The HTML of a creative that is streamed into the WebView rather than passed
+     * in as a String (see MRAIDBanner.load and MRAIDInterstitial.load), e.g. a
+     * file on disk or an HTTP response body. Use it for large creatives such as
+     * playables, so the Java heap never holds the whole document.
+     *
+     * The document's origin is https://creative.local, not the base URL's. The
+     * base URL only resolves the creative's relative URLs (through a base tag),
+     * so localStorage, cookies and same-origin requests don't see the base URL's
+     * origin. Pass the HTML as a String if the creative relies on them.
+     ******************************************************************************/
+
+    // Opens the creative's HTML, encoded as UTF-8. Called on a WebView thread, once per load.
+    public InputStream openCreative() throws IOException;
+
+}
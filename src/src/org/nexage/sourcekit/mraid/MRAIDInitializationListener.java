@@ -0,0 +1,13 @@
+package org.nexage.sourcekit.mraid;
+
+public interface MRAIDInitializationListener {
+
+    /******************************************************************************
+     * A listener for MRAIDSdk.initialize. Called on the main thread once the
+     * WebView provider has been loaded and mraid.js has been read, with the
+     * total time that work took (see MRAIDSdk for the individual parts).
+     ******************************************************************************/
+
+    public void mraidSdkInitialized(long warmUpMillis);
+
+}
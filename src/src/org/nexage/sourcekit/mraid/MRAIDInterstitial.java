@@ -5,6 +5,8 @@ import android.content.Context;
 import android.graphics.Color;
 import android.webkit.WebView;
 
+import org.nexage.sourcekit.mraid.internal.MRAIDLog;
+
 @SuppressLint("ViewConstructor")
 public class MRAIDInterstitial extends MRAIDView {
 
@@ -23,6 +25,28 @@ public class MRAIDInterstitial extends MRAIDView {
         addView(webView);
     }
 
+    /**
+     * Loads a creative streamed from the source (see MRAIDCreativeSource) into an
+     * interstitial that was created without data. An interstitial only ever shows
+     * one creative.
+     */
+    public void load(String baseUrl, MRAIDCreativeSource source) {
+        if (webView == null || hasContent()) {
+            MRAIDLog.w(TAG, "load ignored, the interstitial already has a creative or was destroyed");
+            return;
+        }
+        loadContent(baseUrl, source);
+    }
+
+    // Like load, for a creative in a bundle (see MRAIDCreativeBundle), e.g. one that was pre-cached for offline use.
+    public void load(MRAIDCreativeBundle bundle) {
+        if (webView == null || hasContent()) {
+            MRAIDLog.w(TAG, "load ignored, the interstitial already has a creative or was destroyed");
+            return;
+        }
+        loadContent(bundle);
+    }
+
     @Override
     protected void close() {
         super.close();
@@ -65,7 +89,28 @@ public class MRAIDInterstitial extends MRAIDView {
         super.closeFromExpanded();
     }
 
+    /**
+     * Loads, lays out and rasterizes the creative offscreen at full screen size so that a
+     * later call to show() only has to make it visible. The ready, stateChange and
+     * viewableChange events are held back until show() is called. The listener is told
+     * when the interstitial can be shown instantly.
+     */
+    public void preload(MRAIDPreloadListener preloadListener) {
+        if (state != STATE_LOADING || isPreloading()) {
+            return;
+        }
+        preloadExpandedView(preloadListener);
+    }
+
+    public boolean isReadyToShow() {
+        return isPreloadReady();
+    }
+
     public void show() {
-        this.showAsInterstitial();
+        if (isPreloading()) {
+            showPreloadedExpandedView();
+        } else {
+            this.showAsInterstitial();
+        }
     }
 }
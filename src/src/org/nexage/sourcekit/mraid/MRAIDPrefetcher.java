@@ -0,0 +1,503 @@
+package org.nexage.sourcekit.mraid;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import org.nexage.sourcekit.mraid.internal.MRAIDLog;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/******************************************************************************
+ * Builds MRAIDBanners and MRAIDInterstitials ahead of time so they are already
+ * loaded when the app wants to show them.
+ *
+ * Each placement holds at most maxAdsPerPlacement loaded ads, and all placements
+ * together stay below maxMemoryBytes (estimated). Ads are dropped when they are
+ * older than the TTL, least recently used first when memory runs out, and all at
+ * once when the system asks the app to trim its memory. An ad that needs more
+ * than maxMemoryBytes on its own is not prefetched. Until they are taken, the
+ * ads are paused and don't keep the JavaScript timers running.
+ *
+ * The prefetched ads belong to the Activity the prefetcher was created with, so
+ * the prefetcher releases itself when that Activity is destroyed (on API 14+;
+ * call release() yourself on older versions). It only holds the Activity weakly.
+ *
+ * All methods must be called on the main thread.
+ ******************************************************************************/
+
+public class MRAIDPrefetcher implements ComponentCallbacks2 {
+
+    private final static String TAG = "MRAIDPrefetcher";
+
+    public final static int DEFAULT_MAX_ADS_PER_PLACEMENT = 2;
+    public final static long DEFAULT_MAX_MEMORY_BYTES = 16 * 1024 * 1024;
+    public final static long DEFAULT_TTL_MILLIS = 30 * 60 * 1000;
+
+    // rough native cost of a loaded WebView, on top of the creative itself
+    private final static long WEBVIEW_OVERHEAD_BYTES = 2 * 1024 * 1024;
+
+    private final WeakReference<Activity> activityRef;
+    private final Application application;
+    private final Handler handler;
+    private ActivityWatcher activityWatcher;
+    private boolean isReleased;
+
+    // all prefetched ads, least recently used first
+    private final LinkedList<Entry> entries = new LinkedList<Entry>();
+
+    private int maxAdsPerPlacement = DEFAULT_MAX_ADS_PER_PLACEMENT;
+    private long maxMemoryBytes = DEFAULT_MAX_MEMORY_BYTES;
+    private long ttlMillis = DEFAULT_TTL_MILLIS;
+
+    private long memoryBytes;
+
+    // statistics
+    private int prefetchCount;
+    private int hitCount;
+    private int missCount;
+    private int evictionCount;
+    private int readyCount;
+    private long totalTimeToReadyMillis;
+
+    public MRAIDPrefetcher(Activity activity) {
+        this.activityRef = new WeakReference<Activity>(activity);
+        this.application = activity.getApplication();
+        this.handler = new Handler(Looper.getMainLooper());
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            application.registerComponentCallbacks(this);
+            activityWatcher = new ActivityWatcher();
+            application.registerActivityLifecycleCallbacks(activityWatcher);
+        }
+    }
+
+    /**************************************************************************
+     * Configuration
+     **************************************************************************/
+
+    public void setMaxAdsPerPlacement(int maxAdsPerPlacement) {
+        this.maxAdsPerPlacement = Math.max(0, maxAdsPerPlacement);
+        for (Iterator<Entry> it = entries.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (countForPlacement(entry.placement) > this.maxAdsPerPlacement) {
+                it.remove();
+                evict(entry, "placement full");
+            }
+        }
+    }
+
+    public void setMaxMemoryBytes(long maxMemoryBytes) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        trimToMemory(0);
+    }
+
+    public void setTtlMillis(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        removeExpired();
+    }
+
+    /**************************************************************************
+     * Prefetching
+     **************************************************************************/
+
+    public void prefetchBanner(String placement, String baseUrl, String data, String[] supportedNativeFeatures) {
+        prefetch(placement, baseUrl, data, supportedNativeFeatures, false);
+    }
+
+    public void prefetchInterstitial(String placement, String baseUrl, String data, String[] supportedNativeFeatures) {
+        prefetch(placement, baseUrl, data, supportedNativeFeatures, true);
+    }
+
+    private void prefetch(String placement, String baseUrl, String data, String[] supportedNativeFeatures, boolean isInterstitial) {
+        Activity activity = activityRef.get();
+        if (isReleased || activity == null) {
+            MRAIDLog.w(TAG, "prefetch for " + placement + " after release");
+            return;
+        }
+        removeExpired();
+        if (maxAdsPerPlacement == 0) {
+            return;
+        }
+
+        // make room in the placement, dropping its oldest ad
+        if (countForPlacement(placement) >= maxAdsPerPlacement) {
+            for (Iterator<Entry> it = entries.iterator(); it.hasNext(); ) {
+                Entry entry = it.next();
+                if (entry.placement.equals(placement)) {
+                    it.remove();
+                    evict(entry, "placement full");
+                    break;
+                }
+            }
+        }
+
+        // an ad that can't fit even in an empty prefetcher doesn't evict the others
+        long estimatedBytes = WEBVIEW_OVERHEAD_BYTES + (data == null ? 0 : 2L * data.length());
+        if (estimatedBytes > maxMemoryBytes) {
+            MRAIDLog.w(TAG, "prefetch for " + placement + " skipped, " + estimatedBytes + " bytes is over the limit");
+            return;
+        }
+        trimToMemory(estimatedBytes);
+
+        MRAIDLog.d(TAG, "prefetch " + (isInterstitial ? "interstitial" : "banner") + " for " + placement);
+        Entry entry = new Entry(placement, estimatedBytes);
+        if (isInterstitial) {
+            entry.view = new MRAIDInterstitial(activity, baseUrl, data, supportedNativeFeatures, entry, entry);
+        } else {
+            entry.view = new MRAIDBanner(activity, baseUrl, data, supportedNativeFeatures, entry, entry);
+        }
+        entry.view.setPrefetched(true);
+        entries.addLast(entry);
+        memoryBytes += estimatedBytes;
+        prefetchCount++;
+        scheduleExpiry();
+    }
+
+    /**
+     * Takes a prefetched ad for the placement, preferring one that has finished loading.
+     * Returns null if there is none. The listeners receive all callbacks from now on;
+     * mraidViewLoaded is not repeated for an ad that has already loaded (see isReady).
+     */
+    public MRAIDView take(String placement, MRAIDViewListener viewListener, MRAIDNativeFeatureListener nativeFeatureListener) {
+        removeExpired();
+
+        Entry found = null;
+        for (Entry entry : entries) {
+            if (entry.placement.equals(placement) && (found == null || (entry.isReady() && !found.isReady()))) {
+                found = entry;
+            }
+        }
+        if (found == null) {
+            missCount++;
+            MRAIDLog.d(TAG, "take miss for " + placement);
+            return null;
+        }
+
+        hitCount++;
+        MRAIDLog.d(TAG, "take hit for " + placement + (found.isReady() ? "" : " (still loading)"));
+        entries.remove(found);
+        memoryBytes -= found.estimatedBytes;
+        found.viewListener = viewListener;
+        found.nativeFeatureListener = nativeFeatureListener;
+        found.view.setPrefetched(false);
+
+        // the remaining ads of this placement were just used, too
+        touchPlacement(placement);
+        return found.view;
+    }
+
+    public boolean isReady(String placement) {
+        removeExpired();
+        for (Entry entry : entries) {
+            if (entry.placement.equals(placement) && entry.isReady()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Destroys all prefetched ads.
+    public void clear() {
+        MRAIDLog.d(TAG, "clear " + entries.size());
+        while (!entries.isEmpty()) {
+            evict(entries.removeFirst(), "clear");
+        }
+        handler.removeCallbacks(expiryRunnable);
+    }
+
+    // Destroys all prefetched ads and stops listening for memory pressure. Nothing can
+    // be prefetched afterwards.
+    public void release() {
+        clear();
+        if (isReleased) {
+            return;
+        }
+        isReleased = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+            application.unregisterComponentCallbacks(this);
+            application.unregisterActivityLifecycleCallbacks(activityWatcher);
+            activityWatcher = null;
+        }
+    }
+
+    /**************************************************************************
+     * Statistics
+     **************************************************************************/
+
+    public int getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    public float getHitRate() {
+        int total = hitCount + missCount;
+        return total == 0 ? 0 : (float) hitCount / total;
+    }
+
+    public int getEvictionCount() {
+        return evictionCount;
+    }
+
+    // average time from starting a prefetch until the ad finished loading
+    public long getAverageTimeToReadyMillis() {
+        return readyCount == 0 ? 0 : totalTimeToReadyMillis / readyCount;
+    }
+
+    public long getEstimatedMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    /**************************************************************************
+     * Eviction helpers
+     **************************************************************************/
+
+    private int countForPlacement(String placement) {
+        int count = 0;
+        for (Entry entry : entries) {
+            if (entry.placement.equals(placement)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void touchPlacement(String placement) {
+        LinkedList<Entry> touched = new LinkedList<Entry>();
+        for (Iterator<Entry> it = entries.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.placement.equals(placement)) {
+                it.remove();
+                touched.add(entry);
+            }
+        }
+        entries.addAll(touched);
+    }
+
+    // Evicts least recently used ads until there is room for the given number of bytes.
+    private void trimToMemory(long bytesNeeded) {
+        while (!entries.isEmpty() && memoryBytes + bytesNeeded > maxMemoryBytes) {
+            evict(entries.removeFirst(), "memory");
+        }
+    }
+
+    private void removeExpired() {
+        long now = SystemClock.elapsedRealtime();
+        for (Iterator<Entry> it = entries.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (now - entry.createdAt >= ttlMillis) {
+                it.remove();
+                evict(entry, "expired");
+            }
+        }
+    }
+
+    private void evict(Entry entry, String reason) {
+        MRAIDLog.d(TAG, "evict " + entry.placement + " (" + reason + ")");
+        memoryBytes -= entry.estimatedBytes;
+        evictionCount++;
+        entry.view.destroy();
+    }
+
+    private void scheduleExpiry() {
+        handler.removeCallbacks(expiryRunnable);
+        if (entries.isEmpty()) {
+            return;
+        }
+        long oldest = Long.MAX_VALUE;
+        for (Entry entry : entries) {
+            oldest = Math.min(oldest, entry.createdAt);
+        }
+        long delay = Math.max(0, oldest + ttlMillis - SystemClock.elapsedRealtime());
+        handler.postDelayed(expiryRunnable, delay);
+    }
+
+    private final Runnable expiryRunnable = new Runnable() {
+        @Override
+        public void run() {
+            removeExpired();
+            scheduleExpiry();
+        }
+    };
+
+    /**************************************************************************
+     * ComponentCallbacks2
+     **************************************************************************/
+
+    @Override
+    public void onTrimMemory(int level) {
+        MRAIDLog.d(TAG, "onTrimMemory " + level);
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            clear();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // nothing to do
+    }
+
+    /**************************************************************************
+     * Releases the prefetcher along with its Activity
+     **************************************************************************/
+
+    @TargetApi(Build.VERSION_CODES.ICE_CREAM_SANDWICH)
+    private class ActivityWatcher implements Application.ActivityLifecycleCallbacks {
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {
+            if (activity == activityRef.get()) {
+                MRAIDLog.d(TAG, "activity destroyed, releasing");
+                release();
+            }
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity) {
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity) {
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity) {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity) {
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {
+        }
+    }
+
+    /**************************************************************************
+     * A prefetched ad. Until it is taken, it listens to its own MRAIDView to
+     * find out when it is ready; afterwards it forwards everything to the app.
+     **************************************************************************/
+
+    private class Entry implements MRAIDViewListener, MRAIDNativeFeatureListener {
+
+        final String placement;
+        final long estimatedBytes;
+        final long createdAt;
+        long readyAt;
+        MRAIDView view;
+
+        MRAIDViewListener viewListener;
+        MRAIDNativeFeatureListener nativeFeatureListener;
+
+        Entry(String placement, long estimatedBytes) {
+            this.placement = placement;
+            this.estimatedBytes = estimatedBytes;
+            this.createdAt = SystemClock.elapsedRealtime();
+        }
+
+        boolean isReady() {
+            return readyAt != 0;
+        }
+
+        @Override
+        public void mraidViewLoaded(MRAIDView mraidView) {
+            if (readyAt == 0) {
+                readyAt = SystemClock.elapsedRealtime();
+                readyCount++;
+                totalTimeToReadyMillis += readyAt - createdAt;
+            }
+            if (viewListener != null) {
+                viewListener.mraidViewLoaded(mraidView);
+            }
+        }
+
+        @Override
+        public void mraidViewExpand(MRAIDView mraidView) {
+            if (viewListener != null) {
+                viewListener.mraidViewExpand(mraidView);
+            }
+        }
+
+        @Override
+        public void mraidViewClose(MRAIDView mraidView) {
+            if (viewListener != null) {
+                viewListener.mraidViewClose(mraidView);
+            }
+        }
+
+        @Override
+        public boolean mraidViewResize(MRAIDView mraidView, int width, int height, int offsetX, int offsetY) {
+            return viewListener != null && viewListener.mraidViewResize(mraidView, width, height, offsetX, offsetY);
+        }
+
+        @Override
+        public void mraidNativeFeatureCallTel(String url) {
+            if (nativeFeatureListener != null) {
+                nativeFeatureListener.mraidNativeFeatureCallTel(url);
+            }
+        }
+
+        @Override
+        public void mraidNativeFeatureCreateCalendarEvent(String eventJSON) {
+            if (nativeFeatureListener != null) {
+                nativeFeatureListener.mraidNativeFeatureCreateCalendarEvent(eventJSON);
+            }
+        }
+
+        @Override
+        public void mraidNativeFeaturePlayVideo(String url) {
+            if (nativeFeatureListener != null) {
+                nativeFeatureListener.mraidNativeFeaturePlayVideo(url);
+            }
+        }
+
+        @Override
+        public void mraidNativeFeatureOpenBrowser(String url) {
+            if (nativeFeatureListener != null) {
+                nativeFeatureListener.mraidNativeFeatureOpenBrowser(url);
+            }
+        }
+
+        @Override
+        public void mraidNativeFeatureStorePicture(String url) {
+            if (nativeFeatureListener != null) {
+                nativeFeatureListener.mraidNativeFeatureStorePicture(url);
+            }
+        }
+
+        @Override
+        public void mraidNativeFeatureSendSms(String url) {
+            if (nativeFeatureListener != null) {
+                nativeFeatureListener.mraidNativeFeatureSendSms(url);
+            }
+        }
+    }
+}
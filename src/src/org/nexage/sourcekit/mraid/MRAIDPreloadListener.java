@@ -0,0 +1,13 @@
+package org.nexage.sourcekit.mraid;
+
+public interface MRAIDPreloadListener {
+
+    /******************************************************************************
+     * A listener for ads that are preloaded offscreen (see MRAIDInterstitial.preload).
+     * Called once the creative has been loaded, laid out and drawn, so that showing
+     * it only requires making it visible.
+     ******************************************************************************/
+
+    public void mraidViewReadyToShow(MRAIDView mraidView);
+
+}
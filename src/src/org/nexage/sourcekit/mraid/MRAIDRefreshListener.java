@@ -0,0 +1,13 @@
+package org.nexage.sourcekit.mraid;
+
+public interface MRAIDRefreshListener {
+
+    /******************************************************************************
+     * A listener for banners that refresh themselves (see MRAIDBannerRefresher).
+     * Called once the current creative has been viewable for the refresh interval.
+     * Respond by fetching the next ad and passing it to MRAIDBannerRefresher.load.
+     ******************************************************************************/
+
+    public void mraidRefreshDue(MRAIDBannerRefresher refresher);
+
+}
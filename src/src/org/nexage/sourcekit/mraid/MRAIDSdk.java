@@ -0,0 +1,130 @@
+package org.nexage.sourcekit.mraid;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.webkit.WebSettings;
+
+import org.nexage.sourcekit.mraid.internal.MRAIDLog;
+import org.nexage.sourcekit.mraid.internal.MRAIDWebViewPool;
+
+/******************************************************************************
+ * Warms up the SDK so the first ad doesn't stall the UI.
+ *
+ * The first WebView in a process loads the WebView provider, which can take
+ * hundreds of milliseconds. Calling initialize early (e.g. in the first
+ * Activity's onCreate) moves that work to the main thread's idle time, after
+ * the first frame has been drawn, and reads mraid.js on a background thread.
+ * The WebView pool is then filled, one WebView per idle pass.
+ *
+ * All methods must be called on the main thread.
+ ******************************************************************************/
+
+public final class MRAIDSdk {
+
+    private final static String TAG = "MRAIDSdk";
+
+    private static boolean isInitializeCalled;
+    private static boolean isProviderLoaded;
+    private static boolean isMraidJsRead;
+
+    private static long providerLoadMillis;
+    private static long mraidJsReadMillis;
+
+    private static MRAIDInitializationListener listener;
+
+    private MRAIDSdk() {
+    }
+
+    public static void initialize(Context context) {
+        initialize(context, null);
+    }
+
+    // Safe to call more than once; only the first call does anything.
+    public static void initialize(Context context, MRAIDInitializationListener initializationListener) {
+        if (isInitializeCalled) {
+            return;
+        }
+        isInitializeCalled = true;
+        listener = initializationListener;
+        final Context applicationContext = context.getApplicationContext();
+        final Handler handler = new Handler(Looper.getMainLooper());
+
+        Thread readThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                long start = SystemClock.elapsedRealtime();
+                Assets.getMraidJsBytes(MRAIDLog.getLoggingLevel());
+                final long millis = SystemClock.elapsedRealtime() - start;
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        MRAIDLog.d(TAG, "mraid.js read in " + millis + "ms");
+                        mraidJsReadMillis = millis;
+                        isMraidJsRead = true;
+                        notifyIfInitialized();
+                    }
+                });
+            }
+        }, "MRAID-init");
+        readThread.setDaemon(true);
+        readThread.start();
+
+        // The queue only goes idle once the pending work, including the first frame, is done.
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                long start = SystemClock.elapsedRealtime();
+                loadProvider(applicationContext);
+                providerLoadMillis = SystemClock.elapsedRealtime() - start;
+                MRAIDLog.d(TAG, "WebView provider loaded in " + providerLoadMillis + "ms");
+                isProviderLoaded = true;
+                MRAIDWebViewPool.getInstance().prewarm(applicationContext);
+                notifyIfInitialized();
+                return false;
+            }
+        });
+    }
+
+    public static boolean isInitialized() {
+        return isProviderLoaded && isMraidJsRead;
+    }
+
+    // Time spent loading the WebView provider on the main thread, or 0 if it hasn't happened yet.
+    public static long getProviderLoadTime() {
+        return providerLoadMillis;
+    }
+
+    // Time spent reading mraid.js in the background, or 0 if it hasn't happened yet.
+    public static long getMraidJsReadTime() {
+        return mraidJsReadMillis;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+    private static void loadProvider(Context context) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            // loads the provider without creating a WebView
+            WebSettings.getDefaultUserAgent(context);
+        } else {
+            // creating a WebView is the only way to load it; keep that one in the pool
+            MRAIDWebViewPool pool = MRAIDWebViewPool.getInstance();
+            pool.recycle(pool.obtain(context));
+        }
+    }
+
+    private static void notifyIfInitialized() {
+        if (!isInitialized()) {
+            return;
+        }
+        long warmUpMillis = providerLoadMillis + mraidJsReadMillis;
+        MRAIDLog.i(TAG, "warm-up took " + warmUpMillis + "ms");
+        if (listener != null) {
+            listener.mraidSdkInitialized(warmUpMillis);
+            listener = null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.nexage.sourcekit.mraid;
+
+import android.support.annotation.IntDef;
+
+import org.nexage.sourcekit.mraid.internal.MRAIDResourceCache;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/******************************************************************************
+ * SDK-wide settings. They apply to every MRAIDView created after they are
+ * changed, so set them up before loading the first ad.
+ ******************************************************************************/
+
+public final class MRAIDSettings {
+
+    // what happens to the WebView cache when an MRAIDView is destroyed
+    @IntDef({CACHE_POLICY_KEEP, CACHE_POLICY_CLEAR_MEMORY, CACHE_POLICY_CLEAR_ON_SESSION_END})
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface CachePolicy {
+    }
+
+    // leave the cache alone, so the next ad can reuse what this one downloaded
+    public final static int CACHE_POLICY_KEEP = 0;
+
+    // drop the in-memory cache, but keep the files on disk
+    public final static int CACHE_POLICY_CLEAR_MEMORY = 1;
+
+    // clear the whole cache, including the files on disk, when the last live MRAIDView is destroyed
+    public final static int CACHE_POLICY_CLEAR_ON_SESSION_END = 2;
+
+    private static int cachePolicy = CACHE_POLICY_KEEP;
+
+    // Deliver creative commands through a @JavascriptInterface bridge instead of
+    // mraid:// iframe navigations. Only used on API 17+; older devices always
+    // use the iframe path.
+    private static boolean isJavascriptBridgeEnabled = false;
+
+    // Fetch the content of 2-part expands in the background as soon as an ad is
+    // loaded, when the creative names it with a literal mraid.expand('url') call.
+    private static boolean isExpandPrefetchEnabled = true;
+
+    // Serve static creative resources (scripts, stylesheets, images, fonts) from a
+    // disk cache shared by all ads. Responses are stored according to their
+    // Cache-Control headers. Only used on API 21+, where intercepted responses
+    // can carry their headers.
+    private static boolean isResourceCacheEnabled = false;
+    private static long resourceCacheMaxBytes = MRAIDResourceCache.DEFAULT_MAX_BYTES;
+
+    // Pause the WebView of a banner while it is scrolled fully off the screen or
+    // detached from its window, and resume it when it comes back. Interstitials,
+    // expanded and resized ads are never paused this way.
+    private static boolean isOffscreenPauseEnabled = true;
+
+    // Show creatives that are plain HTML (no mention of mraid, no external scripts
+    // or frames) without mraid.js, the bridge or position tracking.
+    private static boolean isPlainCreativeDetectionEnabled = true;
+
+    private MRAIDSettings() {
+    }
+
+    public static boolean isJavascriptBridgeEnabled() {
+        return isJavascriptBridgeEnabled;
+    }
+
+    public static void setJavascriptBridgeEnabled(boolean enabled) {
+        isJavascriptBridgeEnabled = enabled;
+    }
+
+    public static boolean isExpandPrefetchEnabled() {
+        return isExpandPrefetchEnabled;
+    }
+
+    public static void setExpandPrefetchEnabled(boolean enabled) {
+        isExpandPrefetchEnabled = enabled;
+    }
+
+    public static boolean isResourceCacheEnabled() {
+        return isResourceCacheEnabled;
+    }
+
+    public static void setResourceCacheEnabled(boolean enabled) {
+        isResourceCacheEnabled = enabled;
+    }
+
+    public static long getResourceCacheMaxBytes() {
+        return resourceCacheMaxBytes;
+    }
+
+    public static void setResourceCacheMaxBytes(long maxBytes) {
+        resourceCacheMaxBytes = maxBytes;
+    }
+
+    public static boolean isOffscreenPauseEnabled() {
+        return isOffscreenPauseEnabled;
+    }
+
+    public static void setOffscreenPauseEnabled(boolean enabled) {
+        isOffscreenPauseEnabled = enabled;
+    }
+
+    public static boolean isPlainCreativeDetectionEnabled() {
+        return isPlainCreativeDetectionEnabled;
+    }
+
+    public static void setPlainCreativeDetectionEnabled(boolean enabled) {
+        isPlainCreativeDetectionEnabled = enabled;
+    }
+
+    @CachePolicy
+    public static int getCachePolicy() {
+        return cachePolicy;
+    }
+
+    // Note that the WebView cache is shared by every WebView in the app, not just by ads.
+    public static void setCachePolicy(@CachePolicy int policy) {
+        cachePolicy = policy;
+    }
+}
@@ -6,7 +6,6 @@ import android.app.ActionBar;
 import android.app.Activity;
 import android.content.Context;
 import android.content.pm.ActivityInfo;
-import android.content.pm.ApplicationInfo;
 import android.content.res.Configuration;
 import android.graphics.Color;
 import android.graphics.Rect;
@@ -15,24 +14,25 @@ import android.graphics.drawable.StateListDrawable;
 import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.IntDef;
 import android.support.annotation.NonNull;
 import android.text.TextUtils;
-import android.util.Base64;
 import android.util.DisplayMetrics;
 import android.util.TypedValue;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
 import android.view.Window;
 import android.view.WindowManager;
 import android.webkit.ConsoleMessage;
 import android.webkit.JsPromptResult;
 import android.webkit.JsResult;
-import android.webkit.ValueCallback;
 import android.webkit.WebChromeClient;
-import android.webkit.WebSettings;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
 import android.widget.FrameLayout;
@@ -40,26 +40,33 @@ import android.widget.ImageButton;
 import android.widget.ImageView;
 import android.widget.RelativeLayout;
 
+import org.nexage.sourcekit.mraid.internal.MRAIDCommand;
+import org.nexage.sourcekit.mraid.internal.MRAIDContentFetcher;
+import org.nexage.sourcekit.mraid.internal.MRAIDCreativeStream;
 import org.nexage.sourcekit.mraid.internal.MRAIDHtmlProcessor;
+import org.nexage.sourcekit.mraid.internal.MRAIDJavascriptBridge;
 import org.nexage.sourcekit.mraid.internal.MRAIDLog;
-import org.nexage.sourcekit.mraid.internal.MRAIDLog.LOG_LEVEL;
 import org.nexage.sourcekit.mraid.internal.MRAIDNativeFeatureManager;
 import org.nexage.sourcekit.mraid.internal.MRAIDParser;
+import org.nexage.sourcekit.mraid.internal.MRAIDResourceCache;
+import org.nexage.sourcekit.mraid.internal.MRAIDStateBuffer;
+import org.nexage.sourcekit.mraid.internal.MRAIDTimerCoordinator;
+import org.nexage.sourcekit.mraid.internal.MRAIDWebView;
+import org.nexage.sourcekit.mraid.internal.MRAIDWebViewPool;
 import org.nexage.sourcekit.mraid.properties.MRAIDOrientationProperties;
 import org.nexage.sourcekit.mraid.properties.MRAIDResizeProperties;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.UnsupportedEncodingException;
+import java.io.SequenceInputStream;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 @SuppressLint("ViewConstructor")
@@ -95,6 +102,15 @@ public class MRAIDView extends RelativeLayout {
     // default size of close region in dip
     private final static int CLOSE_REGION_SIZE = 50;
 
+    // how often the on-screen position of a scrolling banner is checked
+    private final static long VISIBILITY_CHECK_INTERVAL_MILLIS = 100;
+
+    // how long a banner must stay off the screen before its WebView is paused
+    private final static long OFFSCREEN_PAUSE_DELAY_MILLIS = 500;
+
+    // history URL of creatives loaded with loadDataWithBaseURL, followed by a number
+    private final static String DATA_PAGE_URL = "about:blank#mraid-";
+
     // UI elements
 
     // main WebView stores ad in default state
@@ -107,6 +123,14 @@ public class MRAIDView extends RelativeLayout {
     private WebView currentWebView;
 
 
+    private MRAIDWebViewHost mraidWebViewHost;
+    private MRAIDJavascriptBridge mraidJavascriptBridge;
+
+    private final MRAIDParser parser = new MRAIDParser();
+    private MRAIDContentFetcher.Request expandRequest;
+    private final MRAIDResourceCache.Stats resourceCacheStats = new MRAIDResourceCache.Stats();
+    private final MRAIDStateBuffer stateBuffer = new MRAIDStateBuffer();
+    private final MRAIDCommand parsedCommand = new MRAIDCommand();
     private MRAIDWebChromeClient mraidWebChromeClient;
     private MRAIDWebViewClient mraidWebViewClient;
 
@@ -121,7 +145,8 @@ public class MRAIDView extends RelativeLayout {
 
     private Context context;
 
-    private String baseUrl;
+    // read on the WebView's IO thread when serving mraid.js and streamed creatives
+    private volatile String baseUrl;
 
     // gesture detector for capturing unwanted gestures
     private GestureDetector gestureDetector;
@@ -137,6 +162,17 @@ public class MRAIDView extends RelativeLayout {
         return state;
     }
 
+    // Hit ratio and bytes saved by the shared resource cache for this ad
+    // (see MRAIDSettings.setResourceCacheEnabled).
+    public MRAIDResourceCache.Stats getResourceCacheStats() {
+        return resourceCacheStats;
+    }
+
+    // Milliseconds from starting to load the creative to firing its ready event, or -1 if it isn't ready yet.
+    public long getTimeToReady() {
+        return timeToReadyMillis;
+    }
+
     // not sure why we keep this separately from the actual view state?
     private boolean isViewable;
 
@@ -167,13 +203,40 @@ public class MRAIDView extends RelativeLayout {
     private Size maxSize;
     private Size screenSize;
     // state to help set positions and sizes
+    // whether the main WebView holds a creative, see loadContent and clearContent
+    private boolean hasContent;
+    // The page the main WebView was last asked to load, see isCurrentPage. A banner that
+    // is reset and loaded again can still get onPageFinished for the page before.
+    private String pageUrl;
+    // makes the history URL of each loadDataWithBaseURL unique
+    private static int dataPageCount;
+    // whether the creative is plain HTML, see loadProcessedContent
+    private boolean isPlain;
+    // where a streamed creative is loaded from; read on a WebView thread
+    private volatile String creativeUrl;
+    private volatile MRAIDCreativeSource creativeSource;
+    // where a bundled creative is loaded from; read on a WebView thread
+    private volatile MRAIDCreativeBundle bundle;
+    // the WebView's user agent, for requests the resource cache makes on a WebView thread
+    private volatile String userAgent;
     private boolean isPageFinished;
+    // when the creative started loading, and how long it took until the ready event
+    private long loadStartMillis;
+    private long timeToReadyMillis = -1;
     protected boolean isLaidOut;
     private boolean isForcingFullScreen;
     private boolean isExpandingFromDefault;
     private boolean isExpandingPart2;
     private boolean isClosing;
 
+    // state for laying out and rasterizing the expanded view offscreen ahead of showing it
+    // (see MRAIDInterstitial.preload)
+    private boolean isPreloading;
+    private boolean isPreloadReadyRequested;
+    private boolean isPreloadReady;
+    private boolean isPreloadShowPending;
+    private MRAIDPreloadListener preloadListener;
+
     // used to force full-screen mode on expand and to restore original state on close
     private View titleBar;
     private boolean isFullScreen;
@@ -186,12 +249,26 @@ public class MRAIDView extends RelativeLayout {
     // the view itself requires an orientation lock.
     private final int originalRequestedOrientation;
 
-    // This is the contents of mraid.js. We keep it around in case we need to inject it
-    // into webViewPart2 (2nd part of 2-part expanded ad).
-    private String mraidJs;
-
     protected Handler handler;
 
+    private boolean isDestroyed;
+    // whether this view is counted as active by MRAIDTimerCoordinator
+    private boolean isActive;
+
+    // see updateActive
+    private boolean isWindowVisible = true;
+    private boolean isOnScreen = true;
+    private boolean isPrefetched;
+
+    // for pausing banners that are scrolled off the screen
+    private boolean isAttached;
+    private boolean isVisibilityCheckScheduled;
+    private boolean isOffscreenPausePending;
+    // set while a creative that is not shown yet is loading (see setLoadingOffscreen)
+    private boolean isLoadingOffscreen;
+    private final Rect visibleRect = new Rect();
+    private VisibilityTracker visibilityTracker;
+
     public MRAIDView(
             Context context,
             String baseUrl,
@@ -240,155 +317,221 @@ public class MRAIDView extends RelativeLayout {
 
         handler = new Handler(Looper.getMainLooper());
 
+        mraidWebViewHost = new MRAIDWebViewHost();
+        mraidJavascriptBridge = new MRAIDJavascriptBridge(new MRAIDJavascriptBridge.Listener() {
+            @Override
+            public void onCommand(MRAIDCommand command) {
+                executeCommand(command);
+            }
+        });
         mraidWebChromeClient = new MRAIDWebChromeClient();
         mraidWebViewClient = new MRAIDWebViewClient();
+        if (MRAIDSettings.isResourceCacheEnabled()) {
+            MRAIDResourceCache.getInstance(context).setMaxBytes(MRAIDSettings.getResourceCacheMaxBytes());
+        }
 
         webView = createWebView();
 
         currentWebView = webView;
 
-        injectMraidJs(webView);
+        // A new ad counts as active until its window is known to be hidden.
+        MRAIDTimerCoordinator.getInstance().onViewCreated();
+        setActive(true);
 
-        data = MRAIDHtmlProcessor.processRawHtml(data);
-        webView.loadDataWithBaseURL(baseUrl, data, "text/html", "UTF-8", null);
-        MRAIDLog.d("log level = " + MRAIDLog.getLoggingLevel());
-        if (MRAIDLog.getLoggingLevel() == LOG_LEVEL.verbose) {
-            injectJavaScript(webView, "mraid.logLevel = mraid.LogLevelEnum.DEBUG;");
-        } else if (MRAIDLog.getLoggingLevel() == LOG_LEVEL.debug) {
-            injectJavaScript(webView, "mraid.logLevel = mraid.LogLevelEnum.DEBUG;");
-        } else if (MRAIDLog.getLoggingLevel() == LOG_LEVEL.info) {
-            injectJavaScript(webView, "mraid.logLevel = mraid.LogLevelEnum.INFO;");
-        } else if (MRAIDLog.getLoggingLevel() == LOG_LEVEL.warning) {
-            injectJavaScript(webView, "mraid.logLevel = mraid.LogLevelEnum.WARNING;");
-        } else if (MRAIDLog.getLoggingLevel() == LOG_LEVEL.error) {
-            injectJavaScript(webView, "mraid.logLevel = mraid.LogLevelEnum.ERROR;");
-        } else if (MRAIDLog.getLoggingLevel() == LOG_LEVEL.none) {
-            injectJavaScript(webView, "mraid.logLevel = mraid.LogLevelEnum.NONE;");
+        if (data != null) {
+            loadContent(baseUrl, data);
         }
     }
 
-    @SuppressLint("SetJavaScriptEnabled")
-    private WebView createWebView() {
-        WebView wv = new WebView(context) {
-
-            private static final String TAG = "MRAIDView-WebView";
-
-            @Override
-            protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
-                super.onLayout(changed, left, top, right, bottom);
-                onLayoutWebView(this, changed, left, top, right, bottom);
-            }
-
-            @Override
-            public void onConfigurationChanged(Configuration newConfig) {
-                super.onConfigurationChanged(newConfig);
-                MRAIDLog.d(TAG, "onConfigurationChanged " + (newConfig.orientation == Configuration.ORIENTATION_PORTRAIT ? "portrait" : "landscape"));
-                if (isInterstitial) {
-                    ((Activity) context).getWindowManager().getDefaultDisplay().getMetrics(displayMetrics);
-                }
-            }
-
-            @Override
-            protected void onVisibilityChanged(View changedView, int visibility) {
-                super.onVisibilityChanged(changedView, visibility);
-                MRAIDLog.d(TAG, "onVisibilityChanged " + getVisibilityString(visibility));
-                if (isInterstitial) {
-                    setViewable(visibility);
-                }
-            }
-
-            @Override
-            protected void onWindowVisibilityChanged(int visibility) {
-                super.onWindowVisibilityChanged(visibility);
-                int actualVisibility = getVisibility();
-                MRAIDLog.d(TAG, "onWindowVisibilityChanged " + getVisibilityString(visibility) +
-                        " (actual " + getVisibilityString(actualVisibility) + ")");
-                if (isInterstitial) {
-                    setViewable(actualVisibility);
-                }
-                if (visibility != View.VISIBLE) {
-                    pauseWebView(this);
-                }
-            }
-        };
-
-        // changes behavior of view when bigger than window or something?
-        wv.setScrollContainer(false);
-
-        // disable the scroll bars (still allows dragging scroll but hides bars)
-        wv.setVerticalScrollBarEnabled(false);
-        wv.setHorizontalScrollBarEnabled(false);
-
-        // make sure those scroll bars are gone
-        wv.setScrollBarStyle(WebView.SCROLLBARS_OUTSIDE_OVERLAY);
-
-        // i think we want to be able to focus but i dont know?
-        wv.setFocusableInTouchMode(true);
+    // Loads a creative into the main WebView. The state machine must be in its initial state.
+    protected void loadContent(String baseUrl, String data) {
+        boolean isPlain = MRAIDSettings.isPlainCreativeDetectionEnabled() && MRAIDHtmlProcessor.isPlainHtml(data);
+        List<String> expandUrls = MRAIDSettings.isExpandPrefetchEnabled() && !isPlain
+                ? MRAIDHtmlProcessor.findExpandUrls(data) : Collections.<String>emptyList();
+        loadProcessedContent(baseUrl, MRAIDHtmlProcessor.processRawHtml(data, !isPlain), expandUrls, isPlain);
+    }
 
-        // manually delegate view focus?
-        wv.setOnTouchListener(new OnTouchListener() {
-            @SuppressLint("ClickableViewAccessibility")
-            @Override
-            public boolean onTouch(View v, MotionEvent event) {
-                switch (event.getAction()) {
-                    case MotionEvent.ACTION_DOWN:
-                    case MotionEvent.ACTION_UP:
-                        // isTouched = true;
-                        if (!v.hasFocus()) {
-                            v.requestFocus();
-                        }
-                        break;
-                }
-                return false;
+    /**
+     * Like loadContent, for a creative that has already been through MRAIDHtmlProcessor
+     * (see MRAIDViewFactory). A plain creative (see MRAIDHtmlProcessor.isPlainHtml) is
+     * shown without mraid.js: no bridge, no state pushed to it and no position tracking.
+     * The listener is still called as for any other creative.
+     */
+    void loadProcessedContent(String baseUrl, String html, List<String> expandUrls, boolean isPlain) {
+        this.baseUrl = baseUrl;
+        hasContent = true;
+        creativeUrl = null;
+        creativeSource = null;
+        bundle = null;
+        setPlain(isPlain);
+
+        for (String url : expandUrls) {
+            // relative URLs can't be resolved without a base URL
+            if (baseUrl != null || url.startsWith("http://") || url.startsWith("https://")) {
+                MRAIDContentFetcher.prefetch(context, resolveExpandUrl(url));
             }
-        });
-
-        // definitely want javascript on
-        wv.getSettings().setJavaScriptEnabled(true);
-
-        // store things somehow ?
-        wv.getSettings().setDomStorageEnabled(true);
-
-        // not sure what this does??
-        wv.getSettings().setAllowContentAccess(true);
-
-        // we don't want to block image requests
-        wv.getSettings().setBlockNetworkImage(false);
+        }
 
-        // don't use the zoom control gestures
-        wv.getSettings().setBuiltInZoomControls(false);
+        // The creative's script tag loads mraid.js from memory (see shouldInterceptRequest),
+        // so this is the only navigation. The history URL is what onPageFinished reports.
+        loadStartMillis = SystemClock.uptimeMillis();
+        pageUrl = DATA_PAGE_URL + (++dataPageCount);
+        webView.loadDataWithBaseURL(baseUrl, html, "text/html", "UTF-8", pageUrl);
+    }
 
-        // use the wide viewport i think, maybe we don't want this?
-        wv.getSettings().setUseWideViewPort(true);
+    /**
+     * Loads a creative that is streamed from the source when the WebView asks for it
+     * (see MRAIDCreativeStream), so the Java heap never holds the whole document. The
+     * creative isn't processed beyond adding mraid.js and our head content at its
+     * start, and its 2-part expand URLs aren't prefetched. The state machine must be
+     * in its initial state. The document's origin is MRAIDCreativeStream.ORIGIN;
+     * baseUrl goes into a base tag and only resolves relative URLs.
+     */
+    protected void loadContent(String baseUrl, MRAIDCreativeSource source) {
+        this.baseUrl = baseUrl;
+        hasContent = true;
+        bundle = null;
+        setPlain(false);
+        creativeSource = source;
+        creativeUrl = MRAIDCreativeStream.nextUrl();
+        MRAIDLog.d(TAG, "streaming creative from " + creativeUrl);
+        loadStartMillis = SystemClock.uptimeMillis();
+        pageUrl = creativeUrl;
+        webView.loadUrl(creativeUrl);
+    }
+
+    /**
+     * Loads a creative from a bundle (see MRAIDCreativeBundle). Everything the creative
+     * asks for under the bundle's URL, including its part 2 pages, is served from the
+     * bundle without going to the network. The state machine must be in its initial state.
+     */
+    protected void loadContent(MRAIDCreativeBundle bundle) {
+        this.baseUrl = bundle.getBaseUrl();
+        hasContent = true;
+        creativeUrl = null;
+        creativeSource = null;
+        this.bundle = bundle;
+        setPlain(false);
+        MRAIDLog.d(TAG, "loading creative from bundle " + bundle.getMainUrl());
+        loadStartMillis = SystemClock.uptimeMillis();
+        // the WebView may encode the entry name, so any page of the bundle will do
+        pageUrl = bundle.getBaseUrl();
+        webView.loadUrl(bundle.getMainUrl());
+    }
+
+    // Whether the creative is plain HTML that is shown without mraid.js.
+    public boolean isPlainCreative() {
+        return isPlain;
+    }
+
+    private void setPlain(boolean isPlain) {
+        if (isPlain) {
+            MRAIDLog.d(TAG, "plain creative, not using MRAID");
+        }
+        this.isPlain = isPlain;
+        stateBuffer.setEnabled(!isPlain);
+        // a reused WebView may still have the bridge from its last creative
+        setJavascriptBridge(webView, !isPlain);
+    }
+
+    protected boolean hasContent() {
+        return hasContent;
+    }
+
+    /**
+     * Puts the MRAID state machine back where a new MRAIDView starts, so the main
+     * WebView can be reused for another creative. An expanded or resized ad is
+     * closed first. Must be followed by loadContent or clearContent.
+     */
+    protected void resetState() {
+        MRAIDLog.d(TAG, "resetState");
+        if (state == STATE_EXPANDED) {
+            closeFromExpanded();
+        } else if (state == STATE_RESIZED) {
+            closeFromResized();
+        }
+        if (expandRequest != null) {
+            expandRequest.cancel();
+            expandRequest = null;
+        }
+        stateBuffer.cancel();
 
-        // load all the images without asking
-        wv.getSettings().setLoadsImagesAutomatically(true);
+        state = STATE_LOADING;
+        isPageFinished = false;
+        loadStartMillis = 0;
+        timeToReadyMillis = -1;
+        isExpandingFromDefault = false;
+        isExpandingPart2 = false;
+        isPreloading = false;
+        isPreloadReadyRequested = false;
+        isPreloadReady = false;
+        isPreloadShowPending = false;
+        useCustomClose = false;
+        orientationProperties = new MRAIDOrientationProperties();
+        resizeProperties = new MRAIDResizeProperties();
 
-        // our ads often have insecure images and stuff, newer android prevents loading these by default
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            wv.getSettings().setMixedContentMode(WebSettings.MIXED_CONTENT_ALWAYS_ALLOW);
+        // The WebView doesn't move, so there may be no layout to recalculate the positions.
+        currentPosition = new Rect();
+        defaultPosition = new Rect();
+        if (isLaidOut) {
+            calculatePosition(false);
+            calculatePosition(true);
         }
+    }
 
-        // not sure why the following says "no virtual method"
-        // wv.getSettings().setOffscreenPreRaster(true);
+    // Unloads the creative, leaving the main WebView blank until the next loadContent.
+    protected void clearContent() {
+        hasContent = false;
+        creativeUrl = null;
+        creativeSource = null;
+        bundle = null;
+        pageUrl = "about:blank";
+        webView.loadUrl("about:blank");
+    }
 
-        // no zooming!
-        wv.getSettings().setSupportZoom(false);
+    // Whether onPageFinished is for the page the main WebView was last asked to load.
+    private boolean isCurrentPage(String url) {
+        if (url == null || pageUrl == null) {
+            return false;
+        }
+        if (url.equals(pageUrl) || (pageUrl.endsWith("/") && url.startsWith(pageUrl))) {
+            return true;
+        }
+        // The WebView before KitKat may report loadDataWithBaseURL pages by their base URL.
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT && pageUrl.startsWith(DATA_PAGE_URL)
+                && !url.startsWith("about:blank");
+    }
 
+    // Leases a pre-configured WebView from the shared pool and hooks it up to this MRAIDView.
+    private WebView createWebView() {
+        MRAIDWebView wv = MRAIDWebViewPool.getInstance().obtain(context);
+        if (userAgent == null) {
+            userAgent = wv.getSettings().getUserAgentString();
+        }
+        wv.setHost(mraidWebViewHost);
         wv.setWebChromeClient(mraidWebChromeClient);
         wv.setWebViewClient(mraidWebViewClient);
+        setJavascriptBridge(wv, !isPlain);
+        return wv;
+    }
 
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
-            wv.getSettings().setMediaPlaybackRequiresUserGesture(false);
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private void setJavascriptBridge(WebView wv, boolean isEnabled) {
+        // addJavascriptInterface is not safe to use before API 17
+        if (!MRAIDSettings.isJavascriptBridgeEnabled() || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            return;
         }
-
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
-            if (0 != (context.getApplicationInfo().flags &= ApplicationInfo.FLAG_DEBUGGABLE)) {
-                WebView.setWebContentsDebuggingEnabled(true);
-            }
+        if (isEnabled) {
+            wv.addJavascriptInterface(mraidJavascriptBridge, MRAIDJavascriptBridge.NAME);
+        } else {
+            wv.removeJavascriptInterface(MRAIDJavascriptBridge.NAME);
         }
+    }
 
-        return wv;
+    // A view that is loading offscreen is not shown, so it must not take touches either.
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        return !isLoadingOffscreen && super.dispatchTouchEvent(event);
     }
 
     @SuppressLint("ClickableViewAccessibility")
@@ -409,23 +552,45 @@ public class MRAIDView extends RelativeLayout {
     }
 
     public void destroy() {
+        if (isDestroyed) {
+            return;
+        }
+        isDestroyed = true;
+        stopVisibilityTracking();
+        MRAIDTimerCoordinator.getInstance().onViewDestroyed(webView, isActive);
+        isActive = false;
+        isPreloading = false;
+        if (expandRequest != null) {
+            expandRequest.cancel();
+            expandRequest = null;
+        }
+        stateBuffer.cancel();
+        if (expandedView != null && expandedView.getParent() != null) {
+            ((ViewGroup) expandedView.getParent()).removeView(expandedView);
+        }
+        // currentWebView is always either webView or webViewPart2
         destroyWebView(webView);
         destroyWebView(webViewPart2);
-        destroyWebView(currentWebView);
+        webView = null;
+        webViewPart2 = null;
+        currentWebView = null;
     }
 
+    // Scrubs the WebView and hands it back to the shared pool.
     private void destroyWebView(WebView wv) {
         if (wv != null) {
-            if (wv.getParent() != null) {
-                ((ViewGroup) wv.getParent()).removeView(wv);
+            switch (MRAIDSettings.getCachePolicy()) {
+                case MRAIDSettings.CACHE_POLICY_CLEAR_MEMORY:
+                    wv.clearCache(false);
+                    break;
+                case MRAIDSettings.CACHE_POLICY_CLEAR_ON_SESSION_END:
+                    if (MRAIDTimerCoordinator.getInstance().getLiveViewCount() == 0) {
+                        MRAIDLog.d(TAG, "session ended, clearing cache");
+                        wv.clearCache(true);
+                    }
+                    break;
             }
-            wv.clearHistory();
-            wv.clearCache(true);
-            wv.loadUrl("about:blank");
-            wv.pauseTimers();
-            wv.setWebChromeClient(null);
-            wv.setWebViewClient(null);
-            wv.destroy();
+            MRAIDWebViewPool.getInstance().recycle((MRAIDWebView) wv);
         }
     }
 
@@ -440,66 +605,101 @@ public class MRAIDView extends RelativeLayout {
     private void parseCommandUrl(String commandUrl) {
         MRAIDLog.d(TAG, "parseCommandUrl " + commandUrl);
 
-        MRAIDParser parser = new MRAIDParser();
-        Map<String, String> commandMap = parser.parseCommandUrl(commandUrl);
+        // the parser and the command record are reused for every command
+        if (parser.parseCommandUrl(commandUrl, parsedCommand)) {
+            executeCommand(parsedCommand);
+        }
+    }
 
-        String command = commandMap.get("command");
+    // Runs a parsed command, whether it came from an mraid:// URL or from the JavaScript bridge.
+    // Package-private for CommandDispatchBenchmark.
+    void executeCommand(MRAIDCommand command) {
+        try {
+            COMMAND_HANDLERS.get(command.type).execute(this, command);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
 
-        final String[] commandsWithNoParam = {
-                "close",
-                "resize",
-        };
+    /**************************************************************************
+     * Command dispatch
+     *
+     * One handler per MRAID command, built once for all MRAIDViews. Handlers
+     * call the (overridable) MRAID API methods below, so MRAIDBanner and
+     * MRAIDInterstitial overrides are picked up through normal virtual dispatch.
+     **************************************************************************/
 
-        final String[] commandsWithString = {
-                "createCalendarEvent",
-                "expand",
-                "open",
-                "playVideo",
-                "storePicture",
-                "useCustomClose",
-        };
+    static abstract class CommandHandler {
 
-        final String[] commandsWithMap = {
-                "setOrientationProperties",
-                "setResizeProperties",
-        };
+        abstract void execute(MRAIDView view, MRAIDCommand command);
 
-        try {
-            if (Arrays.asList(commandsWithNoParam).contains(command)) {
-                try {
-                    getClass().getDeclaredMethod(command).invoke(this);
-                } catch (NoSuchMethodException e) {
-                    getClass().getSuperclass().getDeclaredMethod(command).invoke(this);
-                }
-            } else if (Arrays.asList(commandsWithString).contains(command)) {
-                String key;
-                switch (command) {
-                    case "createCalendarEvent":
-                        key = "eventJSON";
-                        break;
-                    case "useCustomClose":
-                        key = "useCustomClose";
-                        break;
-                    default:
-                        key = "url";
-                        break;
-                }
-                String val = commandMap.get(key);
-                try {
-                    getClass().getDeclaredMethod(command, String.class).invoke(this, val);
-                } catch (NoSuchMethodException e) {
-                    getClass().getSuperclass().getDeclaredMethod(command, String.class).invoke(this, val);
-                }
-            } else if (Arrays.asList(commandsWithMap).contains(command)) {
-                try {
-                    getClass().getDeclaredMethod(command, Map.class).invoke(this, commandMap);
-                } catch (NoSuchMethodException e) {
-                    getClass().getSuperclass().getDeclaredMethod(command, Map.class).invoke(this, commandMap);
-                }
+    }
+
+    static final Map<MRAIDCommand.Type, CommandHandler> COMMAND_HANDLERS =
+            new EnumMap<MRAIDCommand.Type, CommandHandler>(MRAIDCommand.Type.class);
+
+    static {
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.CLOSE, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.close();
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
+        });
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.RESIZE, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.resize();
+            }
+        });
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.CREATE_CALENDAR_EVENT, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.createCalendarEvent(command.eventJSON);
+            }
+        });
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.EXPAND, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.expand(command.url);
+            }
+        });
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.OPEN, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.open(command.url);
+            }
+        });
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.PLAY_VIDEO, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.playVideo(command.url);
+            }
+        });
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.STORE_PICTURE, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.storePicture(command.url);
+            }
+        });
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.USE_CUSTOM_CLOSE, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.useCustomClose(command.useCustomClose);
+            }
+        });
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.SET_ORIENTATION_PROPERTIES, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.setOrientationProperties(command.allowOrientationChange, command.forceOrientation);
+            }
+        });
+        COMMAND_HANDLERS.put(MRAIDCommand.Type.SET_RESIZE_PROPERTIES, new CommandHandler() {
+            @Override
+            void execute(MRAIDView view, MRAIDCommand command) {
+                view.setResizeProperties(command.width, command.height, command.offsetX, command.offsetY,
+                        command.customClosePosition, command.allowOffscreen);
+            }
+        });
     }
 
     // delegate onBackPressed behavior depending on MRAID type
@@ -531,7 +731,7 @@ public class MRAIDView extends RelativeLayout {
     }
 
     @JavascriptMRAIDCallback
-    private void createCalendarEvent(String eventJSON) {
+    protected void createCalendarEvent(String eventJSON) {
         MRAIDLog.d(TAG + "-JS callback", "createCalendarEvent " + eventJSON);
         if (nativeFeatureListener != null) {
             nativeFeatureListener.mraidNativeFeatureCreateCalendarEvent(eventJSON);
@@ -563,86 +763,89 @@ public class MRAIDView extends RelativeLayout {
 
         // 2-part expansion
 
-        // First, try to get the content of the second (expanded) part of the creative.
-        try {
-            url = URLDecoder.decode(url, "UTF-8");
-        } catch (UnsupportedEncodingException e) {
+        url = resolveExpandUrl(url);
+
+        // Part 2 pages in a bundle are small and already on the device.
+        if (bundle != null && bundle.contains(url)) {
+            String content = bundle.readString(url);
+            if (TextUtils.isEmpty(content)) {
+                MRAIDLog.e("Could not load part 2 expanded content for URL: " + url);
+                return;
+            }
+            expandPart2(content);
             return;
         }
 
-        // Check to see whether we've been given an absolute or relative URL.
-        // If it's relative, prepend the base URL.
-        if (!url.startsWith("http://") && !url.startsWith("https://")) {
-            url = baseUrl + url;
+        // Read the content from the URL on a background thread (unless it has been
+        // prefetched), then create and load a new WebView.
+        if (expandRequest != null) {
+            expandRequest.cancel();
         }
-
-        final String finalUrl = url;
-
-        // Go onto a background thread to read the content from the URL.
-        (new Thread(new Runnable() {
+        expandRequest = MRAIDContentFetcher.fetchPrefetched(context, url, new MRAIDContentFetcher.Callback() {
             @Override
-            public void run() {
-                final String content = getStringFromUrl(finalUrl);
-                if (!TextUtils.isEmpty(content)) {
-                    // Get back onto the main thread to create and load a new WebView.
-                    ((Activity) context).runOnUiThread(new Runnable() {
-                        @Override
-                        public void run() {
-                            if (state == STATE_RESIZED) {
-                                removeResizeView();
-                                addView(webView);
-                            }
-                            webView.setWebChromeClient(null);
-                            webView.setWebViewClient(null);
-                            webViewPart2 = createWebView();
-                            injectMraidJs(webViewPart2);
-                            webViewPart2.loadDataWithBaseURL(baseUrl, content, "text/html", "UTF-8", null);
-                            currentWebView = webViewPart2;
-                            isExpandingPart2 = true;
-                            expandHelper(currentWebView);
-                        }
-                    });
-                } else {
-                    MRAIDLog.e("Could not load part 2 expanded content for URL: " + finalUrl);
+            public void onContentFetched(String url, String content) {
+                expandRequest = null;
+                if (TextUtils.isEmpty(content)) {
+                    MRAIDLog.e("Could not load part 2 expanded content for URL: " + url);
+                    return;
                 }
+                if (((Activity) context).isFinishing()) {
+                    return;
+                }
+                expandPart2(content);
             }
-        }, "2-part-content")).start();
+        });
+    }
+
+    // Check to see whether we've been given an absolute or relative URL.
+    // If it's relative, prepend the base URL.
+    private String resolveExpandUrl(String url) {
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            url = baseUrl + url;
+        }
+        return url;
+    }
+
+    private void expandPart2(String content) {
+        if (state == STATE_RESIZED) {
+            removeResizeView();
+            addView(webView);
+        }
+        webView.setWebChromeClient(null);
+        webView.setWebViewClient(null);
+        webViewPart2 = createWebView();
+        // part 2 is shown as served, only with mraid.js
+        String html = MRAIDHtmlProcessor.addMraidJs(content);
+        webViewPart2.loadDataWithBaseURL(baseUrl, html, "text/html", "UTF-8", null);
+        currentWebView = webViewPart2;
+        isExpandingPart2 = true;
+        expandHelper(currentWebView);
     }
 
     @JavascriptMRAIDCallback
-    private void open(String url) {
-        try {
-            url = URLDecoder.decode(url, "UTF-8");
-            MRAIDLog.d(TAG + "-JS callback", "open " + url);
-            if (nativeFeatureListener != null) {
-                if (url.startsWith("sms")) {
-                    nativeFeatureListener.mraidNativeFeatureSendSms(url);
-                } else if (url.startsWith("tel")) {
-                    nativeFeatureListener.mraidNativeFeatureCallTel(url);
-                } else {
-                    nativeFeatureListener.mraidNativeFeatureOpenBrowser(url);
-                }
+    protected void open(String url) {
+        MRAIDLog.d(TAG + "-JS callback", "open " + url);
+        if (nativeFeatureListener != null) {
+            if (url.startsWith("sms")) {
+                nativeFeatureListener.mraidNativeFeatureSendSms(url);
+            } else if (url.startsWith("tel")) {
+                nativeFeatureListener.mraidNativeFeatureCallTel(url);
+            } else {
+                nativeFeatureListener.mraidNativeFeatureOpenBrowser(url);
             }
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
         }
     }
 
     @JavascriptMRAIDCallback
-    private void playVideo(String url) {
-        try {
-            url = URLDecoder.decode(url, "UTF-8");
-            MRAIDLog.d(TAG + "-JS callback", "playVideo " + url);
-            if (nativeFeatureListener != null) {
-                nativeFeatureListener.mraidNativeFeaturePlayVideo(url);
-            }
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
+    protected void playVideo(String url) {
+        MRAIDLog.d(TAG + "-JS callback", "playVideo " + url);
+        if (nativeFeatureListener != null) {
+            nativeFeatureListener.mraidNativeFeaturePlayVideo(url);
         }
     }
 
     @JavascriptMRAIDCallback
-    private void resize() {
+    protected void resize() {
         MRAIDLog.d(TAG + "-JS callback", "resize");
 
         // We need the cooperation of the app in order to do a resize.
@@ -678,15 +881,12 @@ public class MRAIDView extends RelativeLayout {
     }
 
     @JavascriptMRAIDCallback
-    protected void setOrientationProperties(Map<String, String> properties) {
-        boolean allowOrientationChange = Boolean.parseBoolean(properties.get("allowOrientationChange"));
-        String forceOrientation = properties.get("forceOrientation");
-
+    protected void setOrientationProperties(boolean allowOrientationChange, int forceOrientation) {
         MRAIDLog.d(TAG + "-JS callback", "setOrientationProperties "
                 + allowOrientationChange + " " + forceOrientation);
 
         orientationProperties.allowOrientationChange = allowOrientationChange;
-        orientationProperties.forceOrientation = MRAIDOrientationProperties.forceOrientationFromString(forceOrientation);
+        orientationProperties.forceOrientation = forceOrientation;
 
         // only interstitials and expanded banners may change orientation
         if (this instanceof MRAIDInterstitial || state == STATE_EXPANDED) {
@@ -695,13 +895,8 @@ public class MRAIDView extends RelativeLayout {
     }
 
     @JavascriptMRAIDCallback
-    private void setResizeProperties(Map<String, String> properties) {
-        int width = Integer.parseInt(properties.get("width"));
-        int height = Integer.parseInt(properties.get("height"));
-        int offsetX = Integer.parseInt(properties.get("offsetX"));
-        int offsetY = Integer.parseInt(properties.get("offsetY"));
-        String customClosePosition = properties.get("customClosePosition");
-        boolean allowOffscreen = Boolean.parseBoolean(properties.get("allowOffscreen"));
+    protected void setResizeProperties(int width, int height, int offsetX, int offsetY,
+                                       int customClosePosition, boolean allowOffscreen) {
         MRAIDLog.d(TAG + "-JS callback", "setResizeProperties "
                 + width + " " + height + " "
                 + offsetX + " " + offsetY + " "
@@ -710,28 +905,21 @@ public class MRAIDView extends RelativeLayout {
         resizeProperties.height = height;
         resizeProperties.offsetX = offsetX;
         resizeProperties.offsetY = offsetY;
-        resizeProperties.customClosePosition =
-                MRAIDResizeProperties.customClosePositionFromString(customClosePosition);
+        resizeProperties.customClosePosition = customClosePosition;
         resizeProperties.allowOffscreen = allowOffscreen;
     }
 
     @JavascriptMRAIDCallback
-    private void storePicture(String url) {
-        try {
-            url = URLDecoder.decode(url, "UTF-8");
-            MRAIDLog.d(TAG + "-JS callback", "storePicture " + url);
-            if (nativeFeatureListener != null) {
-                nativeFeatureListener.mraidNativeFeatureStorePicture(url);
-            }
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
+    protected void storePicture(String url) {
+        MRAIDLog.d(TAG + "-JS callback", "storePicture " + url);
+        if (nativeFeatureListener != null) {
+            nativeFeatureListener.mraidNativeFeatureStorePicture(url);
         }
     }
 
     @JavascriptMRAIDCallback
-    private void useCustomClose(String useCustomCloseString) {
-        MRAIDLog.d(TAG + "-JS callback", "useCustomClose " + useCustomCloseString);
-        boolean useCustomClose = Boolean.parseBoolean(useCustomCloseString);
+    protected void useCustomClose(boolean useCustomClose) {
+        MRAIDLog.d(TAG + "-JS callback", "useCustomClose " + useCustomClose);
         if (this.useCustomClose != useCustomClose) {
             this.useCustomClose = useCustomClose;
             if (useCustomClose) {
@@ -748,77 +936,6 @@ public class MRAIDView extends RelativeLayout {
      * These methods are helper methods for the ones above.
      **************************************************************************/
 
-    private String getStringFromUrl(String url) {
-
-        // Support second part from file system - mostly not used on real web creatives
-        if (url.startsWith("file:///")) {
-            return getStringFromFileUrl(url);
-        }
-
-        String content = null;
-        InputStream is = null;
-        try {
-            HttpURLConnection conn = (HttpURLConnection) (new URL(url)).openConnection();
-            int responseCode = conn.getResponseCode();
-            MRAIDLog.d(TAG, "response code " + responseCode);
-            if (responseCode == HttpURLConnection.HTTP_OK) {
-                MRAIDLog.d(TAG, "getContentLength " + conn.getContentLength());
-                is = conn.getInputStream();
-                byte[] buf = new byte[1500];
-                int count;
-                StringBuilder sb = new StringBuilder();
-                while ((count = is.read(buf)) != -1) {
-                    String data = new String(buf, 0, count);
-                    sb.append(data);
-                }
-                content = sb.toString();
-                MRAIDLog.d(TAG, "getStringFromUrl ok, length=" + content.length());
-            }
-            conn.disconnect();
-        } catch (IOException e) {
-            MRAIDLog.e(TAG, "getStringFromUrl failed " + e.getLocalizedMessage());
-        } finally {
-            try {
-                if (is != null) {
-                    is.close();
-                }
-            } catch (IOException e) {
-                // do nothing
-            }
-        }
-        return content;
-    }
-
-    private String getStringFromFileUrl(String fileURL) {
-
-        StringBuffer mLine = new StringBuffer("");
-        String[] urlElements = fileURL.split("/");
-        if (urlElements[3].equals("android_asset")) {
-            try {
-                BufferedReader reader = new BufferedReader(
-                        new InputStreamReader(context.getAssets().open(urlElements[4])));
-
-                // do reading, usually loop until end of file reading
-                String line = reader.readLine();
-                mLine.append(line);
-                while (line != null) {
-                    line = reader.readLine();
-                    mLine.append(line);
-                }
-
-                reader.close();
-            } catch (IOException e) {
-                MRAIDLog.e("Error fetching file: " + e.getMessage());
-            }
-
-            return mLine.toString();
-        } else {
-            MRAIDLog.e("Unknown location to fetch file content");
-        }
-
-        return "";
-    }
-
     protected void showAsInterstitial() {
         expand(null);
     }
@@ -838,6 +955,114 @@ public class MRAIDView extends RelativeLayout {
         isExpandingFromDefault = true;
     }
 
+    // Builds the expanded view like expandHelper does, but keeps it invisible and lays it out
+    // at full screen size so the creative is completely rendered before it is shown.
+    @TargetApi(Build.VERSION_CODES.M)
+    protected void preloadExpandedView(MRAIDPreloadListener preloadListener) {
+        MRAIDLog.d(TAG, "preloadExpandedView");
+        this.preloadListener = preloadListener;
+        isPreloading = true;
+
+        if (webView.getParent() != null) {
+            ((ViewGroup) webView.getParent()).removeView(webView);
+        }
+
+        // keep rastering while the expanded view is hidden
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            webView.getSettings().setOffscreenPreRaster(true);
+        }
+
+        expandedView = new RelativeLayout(context);
+        expandedView.addView(webView, new RelativeLayout.LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+
+        addCloseRegion(expandedView);
+        setCloseRegionPosition(expandedView);
+
+        // Use the size the content view will have once forceFullScreen has been applied,
+        // so that showing the view does not trigger another layout and raster pass.
+        expandedView.setVisibility(View.INVISIBLE);
+        ((Activity) context).addContentView(expandedView, new FrameLayout.LayoutParams(displayMetrics.widthPixels, displayMetrics.heightPixels));
+    }
+
+    // Makes the preloaded expanded view visible and delivers the events held back while preloading.
+    protected void showPreloadedExpandedView() {
+        MRAIDLog.d(TAG, "showPreloadedExpandedView");
+        isPreloading = false;
+
+        applyOrientationProperties();
+        forceFullScreen();
+
+        expandedView.setLayoutParams(new FrameLayout.LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.MATCH_PARENT));
+        expandedView.setVisibility(View.VISIBLE);
+
+        if (isPageFinished) {
+            firePreloadedShowEvents();
+        } else {
+            isPreloadShowPending = true;
+        }
+    }
+
+    protected boolean isPreloading() {
+        return isPreloading;
+    }
+
+    protected boolean isPreloadReady() {
+        return isPreloadReady;
+    }
+
+    private void firePreloadedShowEvents() {
+        isLaidOut = true;
+        state = STATE_DEFAULT;
+        setScreenSize();
+        setMaxSize();
+        setCurrentPosition();
+        setDefaultPosition();
+        fireStateChangeEvent();
+        fireReadyEvent();
+        isViewable = currentWebView.isShown();
+        if (isViewable) {
+            fireViewableChangeEvent();
+        }
+        if (listener != null) {
+            listener.mraidViewExpand(this);
+        }
+        // pick up the final full screen geometry
+        currentWebView.requestLayout();
+    }
+
+    // Tells the preload listener that the creative is loaded, laid out and drawn.
+    @TargetApi(Build.VERSION_CODES.M)
+    private void checkPreloadReady() {
+        if (!isPreloading || isPreloadReadyRequested || !isPageFinished || currentWebView.getWidth() == 0) {
+            return;
+        }
+        isPreloadReadyRequested = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            // wait until the current content has actually been rastered
+            currentWebView.postVisualStateCallback(0, new WebView.VisualStateCallback() {
+                @Override
+                public void onComplete(long requestId) {
+                    notifyPreloadReady();
+                }
+            });
+        } else {
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    notifyPreloadReady();
+                }
+            });
+        }
+    }
+
+    private void notifyPreloadReady() {
+        MRAIDLog.d(TAG, "notifyPreloadReady");
+        isPreloadReady = true;
+        if (preloadListener != null) {
+            preloadListener.mraidViewReadyToShow(this);
+        }
+    }
+
     private void setResizedViewSize() {
         MRAIDLog.d(TAG, "setResizedViewSize");
         int widthInDip = resizeProperties.width;
@@ -905,9 +1130,10 @@ public class MRAIDView extends RelativeLayout {
             addView(webView, new LayoutParams(LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
         } else {
             // close from 2-part expansion
-            webViewPart2.setWebChromeClient(null);
-            webViewPart2.setWebViewClient(null);
-            webViewPart2.destroy();
+            // Anything still pending is for part 2. It must not be flushed into the WebView
+            // once it is back in the pool, which is what the next bind would do.
+            stateBuffer.cancel();
+            MRAIDWebViewPool.getInstance().recycle((MRAIDWebView) webViewPart2);
             webViewPart2 = null;
             webView.setWebChromeClient(mraidWebChromeClient);
             webView.setWebViewClient(mraidWebViewClient);
@@ -1052,8 +1278,9 @@ public class MRAIDView extends RelativeLayout {
 
     private void showDefaultCloseButton() {
         if (closeRegion != null) {
-            Drawable closeButtonNormalDrawable = Assets.getDrawableFromBase64(getResources(), Assets.new_close);
-            Drawable closeButtonPressedDrawable = Assets.getDrawableFromBase64(getResources(), Assets.new_close_pressed);
+            int size = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, CLOSE_REGION_SIZE, displayMetrics);
+            Drawable closeButtonNormalDrawable = Assets.getDrawable(getResources(), Assets.new_close, size, size);
+            Drawable closeButtonPressedDrawable = Assets.getDrawable(getResources(), Assets.new_close_pressed, size, size);
 
             StateListDrawable states = new StateListDrawable();
             states.addState(new int[]{-android.R.attr.state_pressed}, closeButtonNormalDrawable);
@@ -1128,55 +1355,82 @@ public class MRAIDView extends RelativeLayout {
      **************************************************************************/
 
     @SuppressLint("NewApi")
-    private void injectMraidJs(final WebView wv) {
-        if (TextUtils.isEmpty(mraidJs)) {
-            String str = Assets.mraidJS;
-            byte[] mraidjsBytes = Base64.decode(str, Base64.DEFAULT);
-            mraidJs = new String(mraidjsBytes);
+    // mraid.js from memory, followed by the log level to use. Called on a WebView thread.
+    // The variant (see Assets.getMraidJsBytes) is picked here rather than in the constructor,
+    // so it matches the log level that is appended.
+    private static WebResourceResponse getMraidJsResponse() {
+        MRAIDLog.LOG_LEVEL level = MRAIDLog.getLoggingLevel();
+        byte[] mraidJs = Assets.getMraidJsBytes(level);
+        if (mraidJs == null) {
+            return null;
+        }
+        String logLevel;
+        switch (level) {
+            case verbose:
+            case debug:
+                logLevel = "DEBUG";
+                break;
+            case info:
+                logLevel = "INFO";
+                break;
+            case warning:
+                logLevel = "WARNING";
+                break;
+            case error:
+                logLevel = "ERROR";
+                break;
+            default:
+                logLevel = "NONE";
+                break;
         }
+        byte[] logLevelJs = ("\nmraid.logLevel = mraid.LogLevelEnum." + logLevel + ";\n").getBytes();
+        InputStream is = new SequenceInputStream(new ByteArrayInputStream(mraidJs), new ByteArrayInputStream(logLevelJs));
+        return new WebResourceResponse("application/javascript", "UTF-8", is);
+    }
 
-        MRAIDLog.d(TAG, "injectMraidJs ok " + mraidJs.length());
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
-            wv.loadData("<html></html>", "text/html", "UTF-8");
-            wv.evaluateJavascript(mraidJs, new ValueCallback<String>() {
-                @Override
-                public void onReceiveValue(String value) {
-
-                }
-            });
-        } else {
-            wv.loadUrl("javascript:" + mraidJs);
+    // A streamed creative, or an empty document if the URL isn't the one being loaded. Called on a WebView thread.
+    private WebResourceResponse getCreativeResponse(String url) {
+        MRAIDCreativeSource source = creativeSource;
+        InputStream is = null;
+        if (source != null && url.equals(creativeUrl)) {
+            try {
+                is = MRAIDCreativeStream.wrap(source.openCreative(), baseUrl);
+            } catch (IOException e) {
+                MRAIDLog.e(TAG, "opening creative failed " + e.getLocalizedMessage());
+            }
         }
+        return new WebResourceResponse("text/html", "UTF-8", is != null ? is : MRAIDCreativeStream.empty());
     }
 
-    @SuppressLint("NewApi")
+    // Queues the script for the current WebView; it runs with the next state push.
     private void injectJavaScript(String js) {
-        injectJavaScript(currentWebView, js);
+        if (!TextUtils.isEmpty(js)) {
+            stateBuffer().enqueue(js);
+        }
     }
 
-    @SuppressLint("NewApi")
+    // Runs the script right away, bypassing the state buffer.
     private void injectJavaScript(WebView webView, String js) {
         if (!TextUtils.isEmpty(js)) {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
-                MRAIDLog.d(TAG, "evaluating js: " + js);
-                webView.evaluateJavascript(js, new ValueCallback<String>() {
-                    @Override
-                    public void onReceiveValue(String value) {
-                        MRAIDLog.d("Evaluated JS" + value);
-                    }
-                });
-
-            } else {
-                MRAIDLog.d(TAG, "loading url: " + js);
-                webView.loadUrl("javascript:" + js);
-            }
+            MRAIDStateBuffer.evaluate(webView, js);
         }
     }
 
+    // The state buffer, bound to the current WebView.
+    private MRAIDStateBuffer stateBuffer() {
+        stateBuffer.bind(currentWebView);
+        return stateBuffer;
+    }
+
     // convenience methods
     private void fireReadyEvent() {
         MRAIDLog.d(TAG, "fireReadyEvent");
         injectJavaScript("mraid.fireReadyEvent();");
+        if (loadStartMillis != 0) {
+            timeToReadyMillis = SystemClock.uptimeMillis() - loadStartMillis;
+            loadStartMillis = 0;
+            MRAIDLog.i(TAG, "time to ready " + timeToReadyMillis + "ms");
+        }
     }
 
     // We don't need to explicitly call fireSizeChangeEvent because it's taken care
@@ -1205,7 +1459,7 @@ public class MRAIDView extends RelativeLayout {
         int width = currentPosition.width();
         int height = currentPosition.height();
         MRAIDLog.d(TAG, "setCurrentPosition [" + x + "," + y + "] (" + width + "x" + height + ")");
-        injectJavaScript("mraid.setCurrentPosition(" + px2dip(x) + "," + px2dip(y) + "," + px2dip(width) + "," + px2dip(height) + ");");
+        stateBuffer().setCurrentPosition(px2dip(x), px2dip(y), px2dip(width), px2dip(height));
     }
 
     private void setDefaultPosition() {
@@ -1214,7 +1468,7 @@ public class MRAIDView extends RelativeLayout {
         int width = defaultPosition.width();
         int height = defaultPosition.height();
         MRAIDLog.d(TAG, "setDefaultPosition [" + x + "," + y + "] (" + width + "x" + height + ")");
-        injectJavaScript("mraid.setDefaultPosition(" + px2dip(x) + "," + px2dip(y) + "," + px2dip(width) + "," + px2dip(height) + ");");
+        stateBuffer().setDefaultPosition(px2dip(x), px2dip(y), px2dip(width), px2dip(height));
     }
 
     private void setMaxSize() {
@@ -1222,7 +1476,7 @@ public class MRAIDView extends RelativeLayout {
         int width = maxSize.width;
         int height = maxSize.height;
         MRAIDLog.d(TAG, "setMaxSize " + width + "x" + height);
-        injectJavaScript("mraid.setMaxSize(" + px2dip(width) + "," + px2dip(height) + ");");
+        stateBuffer().setMaxSize(px2dip(width), px2dip(height));
     }
 
     private void setScreenSize() {
@@ -1230,16 +1484,66 @@ public class MRAIDView extends RelativeLayout {
         int width = screenSize.width;
         int height = screenSize.height;
         MRAIDLog.d(TAG, "setScreenSize " + width + "x" + height);
-        injectJavaScript("mraid.setScreenSize(" + px2dip(width) + "," + px2dip(height) + ");");
+        stateBuffer().setScreenSize(px2dip(width), px2dip(height));
     }
 
     private void setSupportedServices() {
         MRAIDLog.d(TAG, "setSupportedServices");
-        injectJavaScript("mraid.setSupports(mraid.SUPPORTED_FEATURES.CALENDAR, " + nativeFeatureManager.isCalendarSupported() + ");");
-        injectJavaScript("mraid.setSupports(mraid.SUPPORTED_FEATURES.INLINEVIDEO, " + nativeFeatureManager.isInlineVideoSupported() + ");");
-        injectJavaScript("mraid.setSupports(mraid.SUPPORTED_FEATURES.SMS, " + nativeFeatureManager.isSmsSupported() + ");");
-        injectJavaScript("mraid.setSupports(mraid.SUPPORTED_FEATURES.STOREPICTURE, " + nativeFeatureManager.isStorePictureSupported() + ");");
-        injectJavaScript("mraid.setSupports(mraid.SUPPORTED_FEATURES.TEL, " + nativeFeatureManager.isTelSupported() + ");");
+        int supports = 0;
+        if (nativeFeatureManager.isCalendarSupported()) {
+            supports |= MRAIDStateBuffer.SUPPORTS_CALENDAR;
+        }
+        if (nativeFeatureManager.isInlineVideoSupported()) {
+            supports |= MRAIDStateBuffer.SUPPORTS_INLINE_VIDEO;
+        }
+        if (nativeFeatureManager.isSmsSupported()) {
+            supports |= MRAIDStateBuffer.SUPPORTS_SMS;
+        }
+        if (nativeFeatureManager.isStorePictureSupported()) {
+            supports |= MRAIDStateBuffer.SUPPORTS_STORE_PICTURE;
+        }
+        if (nativeFeatureManager.isTelSupported()) {
+            supports |= MRAIDStateBuffer.SUPPORTS_TEL;
+        }
+        stateBuffer().setSupports(supports);
+    }
+
+    // Reports changes to MRAIDTimerCoordinator, which pauses the JavaScript timers when no ad is active.
+    private void setActive(boolean isActive) {
+        if (this.isActive == isActive || isDestroyed || currentWebView == null) {
+            return;
+        }
+        this.isActive = isActive;
+        if (isActive) {
+            MRAIDTimerCoordinator.getInstance().onViewActive(currentWebView);
+        } else {
+            MRAIDTimerCoordinator.getInstance().onViewInactive(currentWebView);
+        }
+    }
+
+    // Pauses the current WebView when its window is hidden or the banner is off the screen, and resumes it otherwise.
+    private void updateActive() {
+        if (isDestroyed || currentWebView == null) {
+            return;
+        }
+        boolean isCurrentlyActive = isWindowVisible && isOnScreen && !isPrefetched;
+        if (isCurrentlyActive == isActive) {
+            return;
+        }
+        if (isCurrentlyActive) {
+            resumeWebView(currentWebView);
+        } else {
+            pauseWebView(currentWebView);
+        }
+        setActive(isCurrentlyActive);
+    }
+
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
+    private void resumeWebView(WebView webView) {
+        MRAIDLog.d(TAG, "resumeWebView " + webView.toString());
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
+            webView.onResume();
+        }
     }
 
     @TargetApi(Build.VERSION_CODES.HONEYCOMB)
@@ -1256,9 +1560,46 @@ public class MRAIDView extends RelativeLayout {
     }
 
     /**************************************************************************
-     * WebChromeClient and WebViewClient
+     * WebView host, WebChromeClient and WebViewClient
      **************************************************************************/
 
+    private class MRAIDWebViewHost implements MRAIDWebView.Host {
+
+        private static final String TAG = "MRAIDView-WebView";
+
+        @Override
+        public void onLayoutWebView(WebView wv, boolean changed, int left, int top, int right, int bottom) {
+            MRAIDView.this.onLayoutWebView(wv, changed, left, top, right, bottom);
+        }
+
+        @Override
+        public void onConfigurationChangedWebView(WebView wv, Configuration newConfig) {
+            if (isInterstitial) {
+                ((Activity) context).getWindowManager().getDefaultDisplay().getMetrics(displayMetrics);
+            }
+        }
+
+        @Override
+        public void onVisibilityChangedWebView(WebView wv, View changedView, int visibility) {
+            MRAIDLog.d(TAG, "onVisibilityChanged " + getVisibilityString(visibility));
+            if (isInterstitial) {
+                setViewable(visibility);
+            }
+        }
+
+        @Override
+        public void onWindowVisibilityChangedWebView(WebView wv, int visibility) {
+            int actualVisibility = wv.getVisibility();
+            MRAIDLog.d(TAG, "onWindowVisibilityChanged " + getVisibilityString(visibility) +
+                    " (actual " + getVisibilityString(actualVisibility) + ")");
+            if (isInterstitial) {
+                setViewable(actualVisibility);
+            }
+            isWindowVisible = (visibility == View.VISIBLE);
+            updateActive();
+        }
+    }
+
     private class MRAIDWebChromeClient extends WebChromeClient {
 
         @Override
@@ -1304,11 +1645,14 @@ public class MRAIDView extends RelativeLayout {
         public void onPageFinished(WebView view, String url) {
             MRAIDLog.d(TAG, "onPageFinished: " + url);
             super.onPageFinished(view, url);
-            if (state == STATE_LOADING) {
+            if (state == STATE_LOADING && hasContent && view == webView && isCurrentPage(url)) {
                 isPageFinished = true;
-                injectJavaScript("mraid.setPlacementType('" + (isInterstitial ? "interstitial" : "inline") + "');");
+                stateBuffer().setPlacementType(isInterstitial ? "interstitial" : "inline");
                 setSupportedServices();
-                if (isLaidOut) {
+                if (isPreloadShowPending) {
+                    isPreloadShowPending = false;
+                    firePreloadedShowEvents();
+                } else if (isLaidOut) {
                     setScreenSize();
                     setMaxSize();
                     setCurrentPosition();
@@ -1327,13 +1671,14 @@ public class MRAIDView extends RelativeLayout {
                 if (listener != null) {
                     listener.mraidViewLoaded(MRAIDView.this);
                 }
+                checkPreloadReady();
             }
             if (isExpandingPart2) {
                 isExpandingPart2 = false;
                 handler.post(new Runnable() {
                     @Override
                     public void run() {
-                        injectJavaScript("mraid.setPlacementType('" + (isInterstitial ? "interstitial" : "inline") + "');");
+                        stateBuffer().setPlacementType(isInterstitial ? "interstitial" : "inline");
                         setSupportedServices();
                         setScreenSize();
                         setDefaultPosition();
@@ -1366,6 +1711,36 @@ public class MRAIDView extends RelativeLayout {
             }
         }
 
+        @Override
+        public WebResourceResponse shouldInterceptRequest(WebView view, String url) {
+            if (MRAIDHtmlProcessor.isMraidJsUrl(url, baseUrl)) {
+                return getMraidJsResponse();
+            }
+            if (MRAIDCreativeStream.isCreativeUrl(url)) {
+                return getCreativeResponse(url);
+            }
+            MRAIDCreativeBundle bundle = MRAIDView.this.bundle;
+            if (bundle != null && url.startsWith(bundle.getBaseUrl())) {
+                return bundle.getResponse(url);
+            }
+            return super.shouldInterceptRequest(view, url);
+        }
+
+        @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+        @Override
+        public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+            // only GETs can be served from memory or the cache
+            if (!"GET".equals(request.getMethod())) {
+                return null;
+            }
+            WebResourceResponse response = shouldInterceptRequest(view, request.getUrl().toString());
+            if (response == null && MRAIDSettings.isResourceCacheEnabled()) {
+                // the cache needs the request headers, so it is only used from here
+                response = MRAIDResourceCache.getInstance(context).intercept(request, userAgent, resourceCacheStats);
+            }
+            return response;
+        }
+
     }
 
     /**************************************************************************
@@ -1383,12 +1758,18 @@ public class MRAIDView extends RelativeLayout {
     protected void onAttachedToWindow() {
         MRAIDLog.d(TAG, "onAttachedToWindow");
         super.onAttachedToWindow();
+        isAttached = true;
+        startVisibilityTracking();
     }
 
     @Override
     protected void onDetachedFromWindow() {
         MRAIDLog.d(TAG, "onDetachedFromWindow");
+        stopVisibilityTracking();
+        isAttached = false;
         super.onDetachedFromWindow();
+        // A banner that is only being moved (e.g. by a RecyclerView) is reattached before the pause kicks in.
+        checkOnScreen();
     }
 
     @Override
@@ -1396,6 +1777,7 @@ public class MRAIDView extends RelativeLayout {
         super.onVisibilityChanged(changedView, visibility);
         MRAIDLog.d(TAG, "onVisibilityChanged " + getVisibilityString(visibility));
         setViewable(visibility);
+        checkOnScreen();
     }
 
     @Override
@@ -1407,8 +1789,148 @@ public class MRAIDView extends RelativeLayout {
         setViewable(actualVisibility);
     }
 
+    /**************************************************************************
+     * Pausing banners that are scrolled off the screen
+     **************************************************************************/
+
+    // Listens for scrolling and layout anywhere in the window, and checks the position of the banner at most
+    // once per VISIBILITY_CHECK_INTERVAL_MILLIS.
+    private class VisibilityTracker implements ViewTreeObserver.OnScrollChangedListener,
+            ViewTreeObserver.OnGlobalLayoutListener {
+
+        private final Runnable checkRunnable = new Runnable() {
+            @Override
+            public void run() {
+                isVisibilityCheckScheduled = false;
+                checkOnScreen();
+            }
+        };
+
+        @Override
+        public void onScrollChanged() {
+            scheduleCheck();
+        }
+
+        @Override
+        public void onGlobalLayout() {
+            scheduleCheck();
+        }
+
+        private void scheduleCheck() {
+            if (!isVisibilityCheckScheduled) {
+                isVisibilityCheckScheduled = true;
+                handler.postDelayed(checkRunnable, VISIBILITY_CHECK_INTERVAL_MILLIS);
+            }
+        }
+    }
+
+    private final Runnable offscreenPauseRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isOffscreenPausePending = false;
+            if (state == STATE_EXPANDED || state == STATE_RESIZED || isLoadingOffscreen) {
+                return;
+            }
+            MRAIDLog.d(TAG, "off the screen, pausing");
+            isOnScreen = false;
+            updateActive();
+        }
+    };
+
+    private void startVisibilityTracking() {
+        if (isInterstitial || isDestroyed || !MRAIDSettings.isOffscreenPauseEnabled()) {
+            return;
+        }
+        if (visibilityTracker == null) {
+            visibilityTracker = new VisibilityTracker();
+        }
+        ViewTreeObserver observer = getViewTreeObserver();
+        observer.addOnScrollChangedListener(visibilityTracker);
+        observer.addOnGlobalLayoutListener(visibilityTracker);
+        checkOnScreen();
+    }
+
+    @SuppressWarnings("deprecation")
+    private void stopVisibilityTracking() {
+        if (visibilityTracker == null) {
+            return;
+        }
+        ViewTreeObserver observer = getViewTreeObserver();
+        if (observer.isAlive()) {
+            observer.removeOnScrollChangedListener(visibilityTracker);
+            // removeOnGlobalLayoutListener needs API 16
+            observer.removeGlobalOnLayoutListener(visibilityTracker);
+        }
+        handler.removeCallbacks(visibilityTracker.checkRunnable);
+        isVisibilityCheckScheduled = false;
+        if (isDestroyed) {
+            handler.removeCallbacks(offscreenPauseRunnable);
+            isOffscreenPausePending = false;
+        }
+    }
+
+    // Resumes the banner as soon as any part of it is on the screen, but only pauses it once it has
+    // been completely off the screen for OFFSCREEN_PAUSE_DELAY_MILLIS, so that flinging past it or
+    // moving it between parents doesn't pause and resume it over and over.
+    private void checkOnScreen() {
+        if (isInterstitial || isDestroyed || !MRAIDSettings.isOffscreenPauseEnabled()) {
+            return;
+        }
+        boolean isCurrentlyOnScreen;
+        if (state == STATE_EXPANDED || state == STATE_RESIZED) {
+            // the ad is shown on top of the activity content, wherever the banner is
+            isCurrentlyOnScreen = true;
+        } else if (isLoadingOffscreen) {
+            // it has to keep running and rastering to be ready when it is shown
+            isCurrentlyOnScreen = true;
+        } else {
+            isCurrentlyOnScreen = isAttached && isShown() && getGlobalVisibleRect(visibleRect)
+                    && !visibleRect.isEmpty();
+        }
+
+        if (isCurrentlyOnScreen) {
+            if (isOffscreenPausePending) {
+                handler.removeCallbacks(offscreenPauseRunnable);
+                isOffscreenPausePending = false;
+            }
+            if (!isOnScreen) {
+                MRAIDLog.d(TAG, "back on the screen, resuming");
+                isOnScreen = true;
+                updateActive();
+            }
+        } else if (isOnScreen && !isOffscreenPausePending) {
+            isOffscreenPausePending = true;
+            handler.postDelayed(offscreenPauseRunnable, OFFSCREEN_PAUSE_DELAY_MILLIS);
+        }
+    }
+
+    // Keeps the WebView running and rastering while it loads a creative that is not shown yet,
+    // so that the creative is completely drawn by the time it is (see MRAIDBannerRefresher).
+    // Offscreen pre-rastering needs API 23; the offscreen pause is held off on every version.
+    @TargetApi(Build.VERSION_CODES.M)
+    void setLoadingOffscreen(boolean isLoadingOffscreen) {
+        if (webView == null || isLoadingOffscreen == this.isLoadingOffscreen) {
+            return;
+        }
+        this.isLoadingOffscreen = isLoadingOffscreen;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            webView.getSettings().setOffscreenPreRaster(isLoadingOffscreen);
+        }
+        setViewable(getVisibility());
+        checkOnScreen();
+    }
+
+    // A prefetched view is never attached, so it never sees its window hidden; it is kept
+    // inactive until MRAIDPrefetcher hands it out, so that it doesn't keep the JavaScript
+    // timers of all ads running (see MRAIDTimerCoordinator).
+    void setPrefetched(boolean isPrefetched) {
+        this.isPrefetched = isPrefetched;
+        updateActive();
+    }
+
     private void setViewable(int visibility) {
-        boolean isCurrentlyViewable = (visibility == View.VISIBLE);
+        // a view that is loading offscreen is drawn, but not shown (see setLoadingOffscreen)
+        boolean isCurrentlyViewable = (visibility == View.VISIBLE) && !isLoadingOffscreen;
         if (isCurrentlyViewable != isViewable) {
             isViewable = isCurrentlyViewable;
             if (isPageFinished && isLaidOut) {
@@ -1427,7 +1949,8 @@ public class MRAIDView extends RelativeLayout {
             MRAIDLog.d(TAG, "onLayout ignored");
             return;
         }
-        if (state == STATE_EXPANDED || state == STATE_RESIZED) {
+        // a plain creative has nobody to tell about sizes and positions
+        if (!isPlain && (state == STATE_EXPANDED || state == STATE_RESIZED)) {
             calculateScreenSize();
             calculateMaxSize();
         }
@@ -1435,7 +1958,7 @@ public class MRAIDView extends RelativeLayout {
             isClosing = false;
             currentPosition = new Rect(defaultPosition);
             setCurrentPosition();
-        } else {
+        } else if (!isPlain) {
             calculatePosition(false);
         }
         if (state == STATE_RESIZED && changed) {
@@ -1466,13 +1989,13 @@ public class MRAIDView extends RelativeLayout {
             return;
         }
 
-        if (state == STATE_LOADING || state == STATE_DEFAULT) {
+        if (!isPlain && (state == STATE_LOADING || state == STATE_DEFAULT)) {
             calculateScreenSize();
             calculateMaxSize();
         }
 
         // If closing from expanded state, just set currentPosition to default position in onLayout above.
-        if (!isClosing) {
+        if (!isClosing && !isPlain) {
             calculatePosition(true);
             if (isInterstitial) {
                 // For interstitials, the default position is always the current position
@@ -1483,6 +2006,8 @@ public class MRAIDView extends RelativeLayout {
             }
         }
 
+        checkPreloadReady();
+
         if (isExpandingFromDefault) {
             isExpandingFromDefault = false;
             if (isInterstitial) {
@@ -0,0 +1,205 @@
+package org.nexage.sourcekit.mraid;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.TextUtils;
+
+import org.nexage.sourcekit.mraid.internal.MRAIDHtmlProcessor;
+import org.nexage.sourcekit.mraid.internal.MRAIDLog;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/******************************************************************************
+ * Creates MRAIDBanners and MRAIDInterstitials without doing the creative's
+ * preparation on the main thread.
+ *
+ * The creative is checked and processed (and mraid.js is read, the first time)
+ * on a background thread. The view is only built, on the main thread, once that
+ * has succeeded, so a broken creative fails without a WebView ever being
+ * created for it. Results are delivered on the main thread unless the request
+ * was cancelled first.
+ ******************************************************************************/
+
+public class MRAIDViewFactory {
+
+    private final static String TAG = "MRAIDViewFactory";
+
+    private final static ThreadPoolExecutor executor;
+
+    static {
+        executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "MRAID-prepare");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    private final static Handler handler = new Handler(Looper.getMainLooper());
+
+    public interface Callback<T extends MRAIDView> {
+
+        // Called on the main thread with the new view, which is already loading the creative.
+        public void onViewCreated(T view);
+
+        // Called on the main thread if the creative can't be shown. No view has been created.
+        public void onViewFailed(String reason);
+
+    }
+
+    /**
+     * A pending creation. Cancelling it guarantees that no view will be created and
+     * that the callback will not be called. Must be cancelled on the main thread.
+     */
+    public static class Request {
+
+        private volatile boolean isCancelled;
+        private Future<?> future;
+
+        private Request() {
+        }
+
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+
+        public void cancel() {
+            if (isCancelled) {
+                return;
+            }
+            isCancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    // the result of the background preparation
+    private static class PreparedCreative {
+        String html;
+        List<String> expandUrls;
+        boolean isPlain;
+        String error;
+    }
+
+    private final Activity activity;
+
+    public MRAIDViewFactory(Activity activity) {
+        this.activity = activity;
+    }
+
+    public Request createBanner(
+            String baseUrl,
+            String data,
+            final String[] supportedNativeFeatures,
+            final MRAIDViewListener viewListener,
+            final MRAIDNativeFeatureListener nativeFeatureListener,
+            Callback<MRAIDBanner> callback
+    ) {
+        return create(baseUrl, data, new ViewBuilder<MRAIDBanner>() {
+            @Override
+            public MRAIDBanner build() {
+                return new MRAIDBanner(activity, supportedNativeFeatures, viewListener, nativeFeatureListener);
+            }
+        }, callback);
+    }
+
+    public Request createInterstitial(
+            String baseUrl,
+            String data,
+            final String[] supportedNativeFeatures,
+            final MRAIDViewListener viewListener,
+            final MRAIDNativeFeatureListener nativeFeatureListener,
+            Callback<MRAIDInterstitial> callback
+    ) {
+        return create(baseUrl, data, new ViewBuilder<MRAIDInterstitial>() {
+            @Override
+            public MRAIDInterstitial build() {
+                return new MRAIDInterstitial(activity, null, null, supportedNativeFeatures,
+                        viewListener, nativeFeatureListener);
+            }
+        }, callback);
+    }
+
+    /**************************************************************************
+     * Preparation
+     **************************************************************************/
+
+    // Builds an empty view on the main thread.
+    private interface ViewBuilder<T extends MRAIDView> {
+        T build();
+    }
+
+    private <T extends MRAIDView> Request create(
+            final String baseUrl,
+            final String data,
+            final ViewBuilder<T> builder,
+            final Callback<T> callback) {
+        final Request request = new Request();
+        request.future = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                if (request.isCancelled) {
+                    return;
+                }
+                final PreparedCreative creative = prepare(data);
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (request.isCancelled) {
+                            return;
+                        }
+                        if (creative.error == null && activity.isFinishing()) {
+                            creative.error = "activity is finishing";
+                        }
+                        if (creative.error != null) {
+                            MRAIDLog.w(TAG, "not creating view: " + creative.error);
+                            callback.onViewFailed(creative.error);
+                            return;
+                        }
+                        T view = builder.build();
+                        view.loadProcessedContent(baseUrl, creative.html, creative.expandUrls, creative.isPlain);
+                        callback.onViewCreated(view);
+                    }
+                });
+            }
+        });
+        return request;
+    }
+
+    // Runs on the background thread.
+    private static PreparedCreative prepare(String data) {
+        PreparedCreative creative = new PreparedCreative();
+        if (TextUtils.isEmpty(data)) {
+            creative.error = "creative is empty";
+            return creative;
+        }
+        creative.isPlain = MRAIDSettings.isPlainCreativeDetectionEnabled() && MRAIDHtmlProcessor.isPlainHtml(data);
+        // A plain creative never asks for mraid.js. Otherwise read the variant the view
+        // will serve once per process, so the first view doesn't pay for it on a WebView thread.
+        if (!creative.isPlain && Assets.getMraidJsBytes(MRAIDLog.getLoggingLevel()) == null) {
+            creative.error = "mraid.js is missing";
+            return creative;
+        }
+        creative.html = MRAIDHtmlProcessor.processRawHtml(data, !creative.isPlain);
+        if (creative.html == null) {
+            creative.error = "creative HTML is malformed";
+            return creative;
+        }
+        creative.expandUrls = MRAIDSettings.isExpandPrefetchEnabled() && !creative.isPlain
+                ? MRAIDHtmlProcessor.findExpandUrls(data) : Collections.<String>emptyList();
+        MRAIDLog.d(TAG, "prepared creative, length=" + creative.html.length());
+        return creative;
+    }
+}
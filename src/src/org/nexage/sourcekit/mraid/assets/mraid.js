@@ -4,13 +4,26 @@
 
 (function() {
 	
+	// A streamed creative keeps its own mraid.js script tag next to the one we add,
+	// so this can run twice in one page. Only the first run may set up the object.
+	if (window.mraid) {
+		console.log("MRAID object already loaded");
+		return;
+	}
+
 	console.log("MRAID object loading...");
 
+	/***************************************************************************
+	 * MRAID declaration
+	 **************************************************************************/
+
+	var mraid = window.mraid = {};
+
 	/***************************************************************************
 	 * console logging helper
 	 **************************************************************************/
 
-	var LogLevelEnum = {
+	mraid.LogLevelEnum = {
 		"DEBUG"   : 0,
 		"INFO"    : 1,
 		"WARNING" : 2,
@@ -18,39 +31,33 @@
 		"NONE"    : 4
 	};
 
-	var logLevel = LogLevelEnum.NONE;
+	mraid.logLevel = mraid.LogLevelEnum.NONE;
 	var log = {};
 
 	log.d = function(msg) {
-		if (logLevel <= LogLevelEnum.DEBUG) {
+		if (mraid.logLevel <= mraid.LogLevelEnum.DEBUG) {
 			console.log("(D-mraid.js) " + msg);
 		}
 	};
 
 	log.i = function(msg) {
-		if (logLevel <= LogLevelEnum.INFO) {
+		if (mraid.logLevel <= mraid.LogLevelEnum.INFO) {
 			console.log("(I-mraid.js) " + msg);
 		}
 	};
 
 	log.w = function(msg) {
-		if (logLevel <= LogLevelEnum.WARNING) {
+		if (mraid.logLevel <= mraid.LogLevelEnum.WARNING) {
 			console.log("(W-mraid.js) " + msg);
 		}
 	};
 
 	log.e = function(msg) {
-		if (logLevel <= LogLevelEnum.ERROR) {
+		if (mraid.logLevel <= mraid.LogLevelEnum.ERROR) {
 			console.log("(E-mraid.js) " + msg);
 		}
 	};
 
-	/***************************************************************************
-	 * MRAID declaration
-	 **************************************************************************/
-
-	var mraid = window.mraid = {};
-
 	/***************************************************************************
 	 * constants
 	 **************************************************************************/
@@ -162,6 +169,12 @@
 
 	var listeners = {};
 
+	// the values of EVENTS, so event names can be checked without walking EVENTS
+	var eventNames = {};
+	for (var key in EVENTS) {
+		eventNames[EVENTS[key]] = true;
+	}
+
 	/***************************************************************************
 	 * "official" API: methods called by creative
 	 **************************************************************************/
@@ -172,7 +185,7 @@
 			mraid.fireErrorEvent("Both event and listener are required.", "addEventListener");
 			return;
 		}
-		if (!contains(event, EVENTS)) {
+		if (!isEventName(event)) {
 			mraid.fireErrorEvent("Unknown MRAID event: " + event, "addEventListener");
 			return;
 		}
@@ -192,7 +205,7 @@
 	mraid.createCalendarEvent = function(parameters) {
 		log.i("mraid.createCalendarEvent with " + parameters);
 		if (supportedFeatures[mraid.SUPPORTED_FEATURES.CALENDAR]) {
-			callNative("createCalendarEvent?eventJSON="	+ JSON.stringify(parameters));
+			callNative("createCalendarEvent", { "eventJSON" : JSON.stringify(parameters) });
 		} else {
 			log.e("createCalendarEvent is not supported");
 		}
@@ -224,7 +237,7 @@
 		if (url === undefined) {
 			callNative("expand");
 		} else {
-			callNative("expand?url=" + encodeURIComponent(url));
+			callNative("expand", { "url" : url });
 		}
 	};
 
@@ -285,12 +298,12 @@
 
 	mraid.open = function(url) {
 		log.i("mraid.open " + url);
-		callNative("open?url=" + encodeURIComponent(url));
+		callNative("open", { "url" : url });
 	};
 
 	mraid.playVideo = function(url) {
 		log.i("mraid.playVideo " + url);
-		callNative("playVideo?url=" + encodeURIComponent(url));
+		callNative("playVideo", { "url" : url });
 	};
 
 	mraid.removeEventListener = function(event, listener) {
@@ -299,7 +312,7 @@
 			mraid.fireErrorEvent("Event is required.", "removeEventListener");
 			return;
 		}
-		if (!contains(event, EVENTS)) {
+		if (!isEventName(event)) {
 			mraid.fireErrorEvent("Unknown MRAID event: " + event, "removeEventListener");
 			return;
 		}
@@ -377,7 +390,7 @@
 		// so the only property that the native side has to know about is useCustomClose.
 		// (That is, the width and height properties are not needed by the native code.)
 		if (expandProperties.useCustomClose !== oldUseCustomClose) {
-			callNative("useCustomClose?useCustomClose="	+ expandProperties.useCustomClose);
+			callNative("useCustomClose", { "useCustomClose" : expandProperties.useCustomClose });
 		}
 		
 		isExpandPropertiesSet = true;
@@ -420,11 +433,12 @@
 		orientationProperties.allowOrientationChange = newOrientationProperties.allowOrientationChange;
 		orientationProperties.forceOrientation = newOrientationProperties.forceOrientation;
 
-		var params = "allowOrientationChange="
-				+ orientationProperties.allowOrientationChange
-				+ "&forceOrientation=" + orientationProperties.forceOrientation;
+		var params = {
+			"allowOrientationChange" : orientationProperties.allowOrientationChange,
+			"forceOrientation" : orientationProperties.forceOrientation
+		};
 
-		callNative("setOrientationProperties?" + params);
+		callNative("setOrientationProperties", params);
 	};
 
 	mraid.setResizeProperties = function(properties) {
@@ -475,15 +489,16 @@
 			}
 		}
 		
-		var params =
-			"width=" + resizeProperties.width +
-			"&height=" + resizeProperties.height +
-	        "&offsetX=" + (resizeProperties.offsetX + adjustments.x) +
-	        "&offsetY=" + (resizeProperties.offsetY + adjustments.y) +
-			"&customClosePosition=" + resizeProperties.customClosePosition +
-			"&allowOffscreen=" + resizeProperties.allowOffscreen;
+		var params = {
+			"width" : resizeProperties.width,
+			"height" : resizeProperties.height,
+			"offsetX" : resizeProperties.offsetX + adjustments.x,
+			"offsetY" : resizeProperties.offsetY + adjustments.y,
+			"customClosePosition" : resizeProperties.customClosePosition,
+			"allowOffscreen" : resizeProperties.allowOffscreen
+		};
 
-		callNative("setResizeProperties?" + params);
+		callNative("setResizeProperties", params);
 
 		isResizeReady = true;
 	};
@@ -491,7 +506,7 @@
 	mraid.storePicture = function(url) {
 		log.i("mraid.storePicture " + url);
 		if (supportedFeatures[mraid.SUPPORTED_FEATURES.STOREPICTURE]) {
-			callNative("storePicture?url=" + encodeURIComponent(url));
+			callNative("storePicture", { "url" : url });
 		} else {
 			log.e("storePicture is not supported");
 		}
@@ -510,8 +525,7 @@
 		log.i("mraid.useCustomClose " + isCustomClose);
 		if (expandProperties.useCustomClose !== isCustomClose) {
 			expandProperties.useCustomClose = isCustomClose;
-			callNative("useCustomClose?useCustomClose="
-					+ expandProperties.useCustomClose);
+			callNative("useCustomClose", { "useCustomClose" : expandProperties.useCustomClose });
 		}
 	};
 
@@ -522,18 +536,16 @@
 	// setters to change state
 	mraid.setCurrentPosition = function(x, y, width, height) {
 		log.i("mraid.setCurrentPosition " + x + "," + y + "," + width + ","	+ height);
+		log.i("previousSize " + currentPosition.width + "," + currentPosition.height);
 
-		var previousSize = {};
-		previousSize.width = currentPosition.width;
-		previousSize.height = currentPosition.height;
-		log.i("previousSize " + previousSize.width + "," + previousSize.height);
+		var isSizeChanged = width !== currentPosition.width || height !== currentPosition.height;
 
 		currentPosition.x = x;
 		currentPosition.y = y;
 		currentPosition.width = width;
 		currentPosition.height = height;
 
-		if (width !== previousSize.width || height !== previousSize.height) {
+		if (isSizeChanged) {
 			mraid.fireSizeChangeEvent(width, height);
 		}
 	};
@@ -617,37 +629,70 @@
 	 * internal helper methods
 	 **************************************************************************/
 
-	function callNative(command) {
+	// Commands are delivered through the native MRAIDBridge object when the SDK has
+	// registered one. All commands issued during the same JavaScript task are sent
+	// to native code in a single batch, in order. Without the bridge, each command
+	// is sent as an mraid:// URL by loading it in a temporary iframe.
+	var pendingCommands = [];
+
+	function callNative(command, params) {
+		var stringParams = {};
+		for (var key in params) {
+			if (params.hasOwnProperty(key)) {
+				stringParams[key] = String(params[key]);
+			}
+		}
+
+		if (window.MRAIDBridge) {
+			pendingCommands.push({ "command" : command, "params" : stringParams });
+			if (pendingCommands.length === 1) {
+				setTimeout(flushCommands, 0);
+			}
+			return;
+		}
+
+		var url = "mraid://" + command;
+		var separator = "?";
+		for (var key in stringParams) {
+			url += separator + key + "=" + encodeURIComponent(stringParams[key]);
+			separator = "&";
+		}
 		var iframe = document.createElement("IFRAME");
-		iframe.setAttribute("src", "mraid://" + command);
+		iframe.setAttribute("src", url);
 		document.documentElement.appendChild(iframe);
 		iframe.parentNode.removeChild(iframe);
 		iframe = null;
 	};
 
+	function flushCommands() {
+		var commands = pendingCommands;
+		pendingCommands = [];
+		window.MRAIDBridge.postCommands(JSON.stringify(commands));
+	};
+
+	// Listeners get the arguments after the event name. They are copied into an array
+	// only when there is someone to pass them to, by index rather than through
+	// Array.prototype.slice.
 	function fireEvent(event) {
-		var args = Array.prototype.slice.call(arguments);
-		args.shift();
-		log.i("fireEvent " + event + " [" + args.toString() + "]");
 		var eventListeners = listeners[event];
-		if (eventListeners) {
-			var len = eventListeners.length;
-			log.i(len + " listener(s) found");
-			for (var i = 0; i < len; i++) {
-				eventListeners[i].apply(null, args);
-			}
-		} else {
-			log.i("no listeners found");
+		if (!eventListeners) {
+			log.i("fireEvent " + event + ", no listeners found");
+			return;
+		}
+		var argc = arguments.length - 1;
+		var args = new Array(argc);
+		for (var i = 0; i < argc; i++) {
+			args[i] = arguments[i + 1];
+		}
+		var len = eventListeners.length;
+		log.i("fireEvent " + event + " [" + args.toString() + "], " + len + " listener(s) found");
+		for (var i = 0; i < len; i++) {
+			eventListeners[i].apply(null, args);
 		}
 	};
 
-	function contains(value, array) {
-		for ( var i in array) {
-			if (array[i] === value) {
-				return true;
-			}
-		}
-		return false;
+	function isEventName(value) {
+		return typeof value === "string" && eventNames.hasOwnProperty(value);
 	};
 
 	// The action parameter is a string which is the name of the setter function
@@ -0,0 +1,623 @@
+// mraid.js (production build, generated from mraid.js by tools/build-mraid-js.js)
+(function() {
+if (window.mraid) {
+console.log("MRAID object already loaded");
+return;
+}
+console.log("MRAID object loading...");
+var mraid = window.mraid = {};
+mraid.LogLevelEnum = {
+"DEBUG"   : 0,
+"INFO"    : 1,
+"WARNING" : 2,
+"ERROR"   : 3,
+"NONE"    : 4
+};
+mraid.logLevel = mraid.LogLevelEnum.NONE;
+var log = {};
+log.d = function(msg) {
+if (mraid.logLevel <= mraid.LogLevelEnum.DEBUG) {
+console.log("(D-mraid.js) " + msg);
+}
+};
+log.i = function(msg) {
+if (mraid.logLevel <= mraid.LogLevelEnum.INFO) {
+console.log("(I-mraid.js) " + msg);
+}
+};
+log.w = function(msg) {
+if (mraid.logLevel <= mraid.LogLevelEnum.WARNING) {
+console.log("(W-mraid.js) " + msg);
+}
+};
+log.e = function(msg) {
+if (mraid.logLevel <= mraid.LogLevelEnum.ERROR) {
+console.log("(E-mraid.js) " + msg);
+}
+};
+var VERSION = "2.0";
+var STATES = mraid.STATES = {
+"LOADING" : "loading",
+"DEFAULT" : "default",
+"EXPANDED" : "expanded",
+"RESIZED" : "resized",
+"HIDDEN" : "hidden"
+};
+var PLACEMENT_TYPES = mraid.PLACEMENT_TYPES = {
+"INLINE" : "inline",
+"INTERSTITIAL" : "interstitial"
+};
+var RESIZE_PROPERTIES_CUSTOM_CLOSE_POSITION = mraid.RESIZE_PROPERTIES_CUSTOM_CLOSE_POSITION = {
+"TOP_LEFT" : "top-left",
+"TOP_CENTER" : "top-center",
+"TOP_RIGHT" : "top-right",
+"CENTER" : "center",
+"BOTTOM_LEFT" : "bottom-left",
+"BOTTOM_CENTER" : "bottom-center",
+"BOTTOM_RIGHT" : "bottom-right"
+};
+var ORIENTATION_PROPERTIES_FORCE_ORIENTATION = mraid.ORIENTATION_PROPERTIES_FORCE_ORIENTATION = {
+"PORTRAIT" : "portrait",
+"LANDSCAPE" : "landscape",
+"NONE" : "none"
+};
+var EVENTS = mraid.EVENTS = {
+"ERROR" : "error",
+"READY" : "ready",
+"SIZECHANGE" : "sizeChange",
+"STATECHANGE" : "stateChange",
+"VIEWABLECHANGE" : "viewableChange"
+};
+var SUPPORTED_FEATURES = mraid.SUPPORTED_FEATURES = {
+"SMS" : "sms",
+"TEL" : "tel",
+"CALENDAR" : "calendar",
+"STOREPICTURE" : "storePicture",
+"INLINEVIDEO" : "inlineVideo"
+};
+var state = STATES.LOADING;
+var placementType = PLACEMENT_TYPES.INLINE;
+var supportedFeatures = {};
+var isViewable = false;
+var isExpandPropertiesSet = false;
+var isResizeReady = false;
+var expandProperties = {
+"width" : 0,
+"height" : 0,
+"useCustomClose" : false,
+"isModal" : true
+};
+var orientationProperties = {
+"allowOrientationChange" : true,
+"forceOrientation" : ORIENTATION_PROPERTIES_FORCE_ORIENTATION.NONE
+};
+var resizeProperties = {
+"width" : 0,
+"height" : 0,
+"customClosePosition" : RESIZE_PROPERTIES_CUSTOM_CLOSE_POSITION.TOP_RIGHT,
+"offsetX" : 0,
+"offsetY" : 0,
+"allowOffscreen" : true
+};
+var currentPosition = {
+"x" : 0,
+"y" : 0,
+"width" : 0,
+"height" : 0
+};
+var defaultPosition = {
+"x" : 0,
+"y" : 0,
+"width" : 0,
+"height" : 0
+};
+var maxSize = {
+"width" : 0,
+"height" : 0
+};
+var screenSize = {
+"width" : 0,
+"height" : 0
+};
+var currentOrientation = 0;
+var listeners = {};
+var eventNames = {};
+for (var key in EVENTS) {
+eventNames[EVENTS[key]] = true;
+}
+mraid.addEventListener = function(event, listener) {
+if (!event || !listener) {
+mraid.fireErrorEvent("Both event and listener are required.", "addEventListener");
+return;
+}
+if (!isEventName(event)) {
+mraid.fireErrorEvent("Unknown MRAID event: " + event, "addEventListener");
+return;
+}
+var listenersForEvent = listeners[event] = listeners[event] || [];
+for (var i = 0; i < listenersForEvent.length; i++) {
+var str1 = String(listener);
+var str2 = String(listenersForEvent[i]);
+if (listener === listenersForEvent[i] || str1 === str2) {
+return;
+}
+}
+listenersForEvent.push(listener);
+};
+mraid.createCalendarEvent = function(parameters) {
+if (supportedFeatures[mraid.SUPPORTED_FEATURES.CALENDAR]) {
+callNative("createCalendarEvent", { "eventJSON" : JSON.stringify(parameters) });
+} else {
+log.e("createCalendarEvent is not supported");
+}
+};
+mraid.close = function() {
+if (state === STATES.LOADING
+|| (state === STATES.DEFAULT && placementType === PLACEMENT_TYPES.INLINE)
+|| state === STATES.HIDDEN) {
+return;
+}
+callNative("close");
+};
+mraid.expand = function(url) {
+if (url === undefined) {
+} else {
+}
+if (placementType !== PLACEMENT_TYPES.INLINE
+|| (state !== STATES.DEFAULT && state !== STATES.RESIZED)) {
+return;
+}
+if (url === undefined) {
+callNative("expand");
+} else {
+callNative("expand", { "url" : url });
+}
+};
+mraid.getCurrentPosition = function() {
+return currentPosition;
+};
+mraid.getDefaultPosition = function() {
+return defaultPosition;
+};
+mraid.getExpandProperties = function() {
+return expandProperties;
+};
+mraid.getMaxSize = function() {
+return maxSize;
+};
+mraid.getOrientationProperties = function() {
+return orientationProperties;
+};
+mraid.getPlacementType = function() {
+return placementType;
+};
+mraid.getResizeProperties = function() {
+return resizeProperties;
+};
+mraid.getScreenSize = function() {
+return screenSize;
+};
+mraid.getState = function() {
+return state;
+};
+mraid.getVersion = function() {
+return VERSION;
+};
+mraid.isViewable = function() {
+return isViewable;
+};
+mraid.open = function(url) {
+callNative("open", { "url" : url });
+};
+mraid.playVideo = function(url) {
+callNative("playVideo", { "url" : url });
+};
+mraid.removeEventListener = function(event, listener) {
+if (!event) {
+mraid.fireErrorEvent("Event is required.", "removeEventListener");
+return;
+}
+if (!isEventName(event)) {
+mraid.fireErrorEvent("Unknown MRAID event: " + event, "removeEventListener");
+return;
+}
+if (listeners.hasOwnProperty(event)) {
+if (listener) {
+var listenersForEvent = listeners[event];
+var len = listenersForEvent.length;
+for (var i = 0; i < len; i++) {
+var registeredListener = listenersForEvent[i];
+var str1 = String(listener);
+var str2 = String(registeredListener);
+if (listener === registeredListener || str1 === str2) {
+listenersForEvent.splice(i, 1);
+break;
+}
+}
+if (i === len) {
+}
+if (listenersForEvent.length === 0) {
+delete listeners[event];
+}
+} else {
+delete listeners[event];
+}
+} else {
+}
+};
+mraid.resize = function() {
+if (placementType === PLACEMENT_TYPES.INTERSTITIAL || state === STATES.LOADING || state === STATES.HIDDEN) {
+return;
+}
+if (state === STATES.EXPANDED) {
+mraid.fireErrorEvent("mraid.resize called when ad is in expanded state", "mraid.resize");
+return;
+}
+if (!isResizeReady) {
+mraid.fireErrorEvent("mraid.resize is not ready to be called", "mraid.resize");
+return;
+}
+callNative("resize");
+};
+mraid.setExpandProperties = function(properties) {
+if (!validate(properties, "setExpandProperties")) {
+log.e("failed validation");
+return;
+}
+var oldUseCustomClose = expandProperties.useCustomClose;
+var rwProps = [ "width", "height", "useCustomClose" ];
+for (var i = 0; i < rwProps.length; i++) {
+var propname = rwProps[i];
+if (properties.hasOwnProperty(propname)) {
+expandProperties[propname] = properties[propname];
+}
+}
+if (expandProperties.useCustomClose !== oldUseCustomClose) {
+callNative("useCustomClose", { "useCustomClose" : expandProperties.useCustomClose });
+}
+isExpandPropertiesSet = true;
+};
+mraid.setOrientationProperties = function(properties) {
+if (!validate(properties, "setOrientationProperties")) {
+log.e("failed validation");
+return;
+}
+var newOrientationProperties = {};
+newOrientationProperties.allowOrientationChange = orientationProperties.allowOrientationChange,
+newOrientationProperties.forceOrientation = orientationProperties.forceOrientation;
+var rwProps = [ "allowOrientationChange", "forceOrientation" ];
+for (var i = 0; i < rwProps.length; i++) {
+var propname = rwProps[i];
+if (properties.hasOwnProperty(propname)) {
+newOrientationProperties[propname] = properties[propname];
+}
+}
+if (newOrientationProperties.allowOrientationChange
+&& newOrientationProperties.forceOrientation !== mraid.ORIENTATION_PROPERTIES_FORCE_ORIENTATION.NONE) {
+mraid.fireErrorEvent(
+"allowOrientationChange is true but forceOrientation is "
++ newOrientationProperties.forceOrientation,
+"setOrientationProperties");
+return;
+}
+orientationProperties.allowOrientationChange = newOrientationProperties.allowOrientationChange;
+orientationProperties.forceOrientation = newOrientationProperties.forceOrientation;
+var params = {
+"allowOrientationChange" : orientationProperties.allowOrientationChange,
+"forceOrientation" : orientationProperties.forceOrientation
+};
+callNative("setOrientationProperties", params);
+};
+mraid.setResizeProperties = function(properties) {
+isResizeReady = false;
+var requiredProps = [ "width", "height", "offsetX", "offsetY" ];
+for (var i = 0; i < requiredProps.length; i++) {
+var propname = requiredProps[i];
+if (!properties.hasOwnProperty(propname)) {
+mraid.fireErrorEvent(
+"required property " + propname + " is missing",
+"mraid.setResizeProperties");
+return;
+}
+}
+if (!validate(properties, "setResizeProperties")) {
+mraid.fireErrorEvent("failed validation", "mraid.setResizeProperties");
+return;
+}
+var adjustments = { "x": 0, "y": 0 };
+var allowOffscreen = properties.hasOwnProperty("allowOffscreen") ? properties.allowOffscreen : resizeProperties.allowOffscreen;
+if (!allowOffscreen) {
+if (properties.width > maxSize.width || properties.height > maxSize.height) {
+mraid.fireErrorEvent("resize width or height is greater than the maxSize width or height", "mraid.setResizeProperties");
+return;
+}
+adjustments = fitResizeViewOnScreen(properties);
+} else if (!isCloseRegionOnScreen(properties)) {
+mraid.fireErrorEvent("close event region will not appear entirely onscreen", "mraid.setResizeProperties");
+return;
+}
+var rwProps = [ "width", "height", "offsetX", "offsetY", "customClosePosition", "allowOffscreen" ];
+for (var i = 0; i < rwProps.length; i++) {
+var propname = rwProps[i];
+if (properties.hasOwnProperty(propname)) {
+resizeProperties[propname] = properties[propname];
+}
+}
+var params = {
+"width" : resizeProperties.width,
+"height" : resizeProperties.height,
+"offsetX" : resizeProperties.offsetX + adjustments.x,
+"offsetY" : resizeProperties.offsetY + adjustments.y,
+"customClosePosition" : resizeProperties.customClosePosition,
+"allowOffscreen" : resizeProperties.allowOffscreen
+};
+callNative("setResizeProperties", params);
+isResizeReady = true;
+};
+mraid.storePicture = function(url) {
+if (supportedFeatures[mraid.SUPPORTED_FEATURES.STOREPICTURE]) {
+callNative("storePicture", { "url" : url });
+} else {
+log.e("storePicture is not supported");
+}
+};
+mraid.supports = function(feature) {
+var retval = supportedFeatures[feature];
+if (typeof retval === "undefined") {
+retval = false;
+}
+return retval;
+};
+mraid.useCustomClose = function(isCustomClose) {
+if (expandProperties.useCustomClose !== isCustomClose) {
+expandProperties.useCustomClose = isCustomClose;
+callNative("useCustomClose", { "useCustomClose" : expandProperties.useCustomClose });
+}
+};
+mraid.setCurrentPosition = function(x, y, width, height) {
+var isSizeChanged = width !== currentPosition.width || height !== currentPosition.height;
+currentPosition.x = x;
+currentPosition.y = y;
+currentPosition.width = width;
+currentPosition.height = height;
+if (isSizeChanged) {
+mraid.fireSizeChangeEvent(width, height);
+}
+};
+mraid.setDefaultPosition = function(x, y, width, height) {
+defaultPosition.x = x;
+defaultPosition.y = y;
+defaultPosition.width = width;
+defaultPosition.height = height;
+};
+mraid.setExpandSize = function(width, height) {
+expandProperties.width = width;
+expandProperties.height = height;
+};
+mraid.setMaxSize = function(width, height) {
+maxSize.width = width;
+maxSize.height = height;
+};
+mraid.setPlacementType = function(pt) {
+placementType = pt;
+};
+mraid.setScreenSize = function(width, height) {
+screenSize.width = width;
+screenSize.height = height;
+if (!isExpandPropertiesSet) {
+expandProperties.width = width;
+expandProperties.height = height;;
+}
+};
+mraid.setSupports = function(feature, supported) {
+supportedFeatures[feature] = supported;
+};
+mraid.fireErrorEvent = function(message, action) {
+fireEvent(mraid.EVENTS.ERROR, message, action);
+};
+mraid.fireReadyEvent = function() {
+fireEvent(mraid.EVENTS.READY);
+};
+mraid.fireSizeChangeEvent = function(width, height) {
+if (state !== mraid.STATES.LOADING) {
+fireEvent(mraid.EVENTS.SIZECHANGE, width, height);
+}
+};
+mraid.fireStateChangeEvent = function(newState) {
+if (state !== newState) {
+state = newState;
+fireEvent(mraid.EVENTS.STATECHANGE, state);
+}
+};
+mraid.fireViewableChangeEvent = function(newIsViewable) {
+if (isViewable !== newIsViewable) {
+isViewable = newIsViewable;
+fireEvent(mraid.EVENTS.VIEWABLECHANGE, isViewable);
+}
+};
+var pendingCommands = [];
+function callNative(command, params) {
+var stringParams = {};
+for (var key in params) {
+if (params.hasOwnProperty(key)) {
+stringParams[key] = String(params[key]);
+}
+}
+if (window.MRAIDBridge) {
+pendingCommands.push({ "command" : command, "params" : stringParams });
+if (pendingCommands.length === 1) {
+setTimeout(flushCommands, 0);
+}
+return;
+}
+var url = "mraid://" + command;
+var separator = "?";
+for (var key in stringParams) {
+url += separator + key + "=" + encodeURIComponent(stringParams[key]);
+separator = "&";
+}
+var iframe = document.createElement("IFRAME");
+iframe.setAttribute("src", url);
+document.documentElement.appendChild(iframe);
+iframe.parentNode.removeChild(iframe);
+iframe = null;
+};
+function flushCommands() {
+var commands = pendingCommands;
+pendingCommands = [];
+window.MRAIDBridge.postCommands(JSON.stringify(commands));
+};
+function fireEvent(event) {
+var eventListeners = listeners[event];
+if (!eventListeners) {
+return;
+}
+var argc = arguments.length - 1;
+var args = new Array(argc);
+for (var i = 0; i < argc; i++) {
+args[i] = arguments[i + 1];
+}
+var len = eventListeners.length;
+for (var i = 0; i < len; i++) {
+eventListeners[i].apply(null, args);
+}
+};
+function isEventName(value) {
+return typeof value === "string" && eventNames.hasOwnProperty(value);
+};
+function validate(properties, action) {
+var retval = true;
+var validators = allValidators[action];
+for (var prop in properties) {
+var validator = validators[prop];
+var value = properties[prop];
+if (validator && !validator(value)) {
+mraid.fireErrorEvent("Value of property " + prop + " (" + value	+ ") is invalid", "mraid." + action);
+retval = false;
+}
+}
+return retval;
+};
+var allValidators = {
+"setExpandProperties" : {
+"width" : function(width) {
+return !isNaN(width);
+},
+"height" : function(height) {
+return !isNaN(height);
+},
+"useCustomClose" : function(useCustomClose) {
+return (typeof useCustomClose === "boolean");
+}
+},
+"setOrientationProperties" : {
+"allowOrientationChange" : function(allowOrientationChange) {
+return (typeof allowOrientationChange === "boolean");
+},
+"forceOrientation" : function(forceOrientation) {
+var validValues = [ "portrait", "landscape", "none" ];
+return (typeof forceOrientation === "string" && validValues.indexOf(forceOrientation) !== -1);
+}
+},
+"setResizeProperties" : {
+"width" : function(width) {
+return !isNaN(width) && 50 <= width;
+},
+"height" : function(height) {
+return !isNaN(height) && 50 <= height;
+},
+"offsetX" : function(offsetX) {
+return !isNaN(offsetX);
+},
+"offsetY" : function(offsetY) {
+return !isNaN(offsetY);
+},
+"customClosePosition" : function(customClosePosition) {
+var validPositions = [ "top-left", "top-center", "top-right",
+"center",
+"bottom-left", "bottom-center",	"bottom-right" ];
+return (typeof customClosePosition === "string" && validPositions.indexOf(customClosePosition) !== -1);
+},
+"allowOffscreen" : function(allowOffscreen) {
+return (typeof allowOffscreen === "boolean");
+}
+}
+};
+function isCloseRegionOnScreen(properties) {
+var resizeRect = {};
+resizeRect.x = defaultPosition.x + properties.offsetX;
+resizeRect.y = defaultPosition.y + properties.offsetY;
+resizeRect.width = properties.width;
+resizeRect.height = properties.height;
+printRect("resizeRect", resizeRect);
+var customClosePosition = properties.hasOwnProperty("customClosePosition") ?
+properties.customClosePosition : resizeProperties.customClosePosition;
+var closeRect = { "width": 50, "height": 50 };
+if (customClosePosition.search("left") !== -1) {
+closeRect.x = resizeRect.x;
+} else if (customClosePosition.search("center") !== -1) {
+closeRect.x = resizeRect.x + (resizeRect.width / 2) - 25;
+} else if (customClosePosition.search("right") !== -1) {
+closeRect.x = resizeRect.x + resizeRect.width - 50;
+}
+if (customClosePosition.search("top") !== -1) {
+closeRect.y = resizeRect.y;
+} else if (customClosePosition === "center") {
+closeRect.y = resizeRect.y + (resizeRect.height / 2) - 25;
+} else if (customClosePosition.search("bottom") !== -1) {
+closeRect.y = resizeRect.y + resizeRect.height - 50;
+}
+var maxRect = { "x": 0, "y": 0 };
+maxRect.width = maxSize.width;
+maxRect.height = maxSize.height;
+return isRectContained(maxRect, closeRect);
+}
+function fitResizeViewOnScreen(properties) {
+var resizeRect = {};
+resizeRect.x = defaultPosition.x + properties.offsetX;
+resizeRect.y = defaultPosition.y + properties.offsetY;
+resizeRect.width = properties.width;
+resizeRect.height = properties.height;
+printRect("resizeRect", resizeRect);
+var maxRect = { "x": 0, "y": 0 };
+maxRect.width = maxSize.width;
+maxRect.height = maxSize.height;
+var adjustments = { "x": 0, "y": 0 };
+if (isRectContained(maxRect, resizeRect)) {
+return adjustments;
+}
+if (resizeRect.x < maxRect.x) {
+adjustments.x = maxRect.x - resizeRect.x;
+} else if ((resizeRect.x + resizeRect.width) > (maxRect.x + maxRect.width)) {
+adjustments.x = (maxRect.x + maxRect.width) - (resizeRect.x + resizeRect.width);
+}
+if (resizeRect.y < maxRect.y) {
+adjustments.y = maxRect.y - resizeRect.y;
+} else if ((resizeRect.y + resizeRect.height) > (maxRect.y + maxRect.height)) {
+adjustments.y = (maxRect.y + maxRect.height) - (resizeRect.y + resizeRect.height);
+}
+resizeRect.x = defaultPosition.x + properties.offsetX + adjustments.x;
+resizeRect.y = defaultPosition.y + properties.offsetY + adjustments.y;
+printRect("adjusted resizeRect", resizeRect);
+return adjustments;
+}
+function isRectContained(containingRect, containedRect) {
+printRect("containingRect", containingRect);
+printRect("containedRect", containedRect);
+return (containedRect.x >= containingRect.x &&
+(containedRect.x + containedRect.width) <= (containingRect.x + containingRect.width) &&
+containedRect.y >= containingRect.y &&
+(containedRect.y + containedRect.height) <= (containingRect.y + containingRect.height));
+}
+function printRect(label, rect) {
+}
+mraid.dumpListeners = function() {
+var nEvents = Object.keys(listeners).length;
+for ( var event in listeners) {
+var eventListeners = listeners[event];
+for (var i = 0; i < eventListeners.length; i++) {
+}
+}
+};
+console.log("MRAID object loaded");
+})();
@@ -0,0 +1,147 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import org.nexage.sourcekit.mraid.properties.MRAIDOrientationProperties;
+import org.nexage.sourcekit.mraid.properties.MRAIDResizeProperties;
+
+/**
+ * A parsed MRAID command with its parameters already converted to their native types.
+ * <p/>
+ * Instances are meant to be reused: MRAIDParser resets the record and fills in the
+ * fields used by the command, so parsing a command does not allocate anything beyond
+ * the String values of url and eventJSON. Only the fields that belong to the current
+ * type are meaningful.
+ */
+public final class MRAIDCommand {
+
+    public enum Type {
+        CLOSE("close"),
+        CREATE_CALENDAR_EVENT("createCalendarEvent"),
+        EXPAND("expand"),
+        OPEN("open"),
+        PLAY_VIDEO("playVideo"),
+        RESIZE("resize"),
+        SET_ORIENTATION_PROPERTIES("setOrientationProperties"),
+        SET_RESIZE_PROPERTIES("setResizeProperties"),
+        STORE_PICTURE("storePicture"),
+        USE_CUSTOM_CLOSE("useCustomClose");
+
+        // the name used by mraid.js
+        public final String jsName;
+
+        Type(String jsName) {
+            this.jsName = jsName;
+        }
+
+        private static final Type[] VALUES = values();
+
+        static Type fromName(CharSequence s, int start, int end) {
+            int length = end - start;
+            for (Type type : VALUES) {
+                String name = type.jsName;
+                if (name.length() != length) {
+                    continue;
+                }
+                int i = 0;
+                while (i < length && name.charAt(i) == s.charAt(start + i)) {
+                    i++;
+                }
+                if (i == length) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+        public static Type fromName(String name) {
+            return fromName(name, 0, name.length());
+        }
+    }
+
+    // bits for the parameters seen while parsing
+    static final int PARAM_URL = 1;
+    static final int PARAM_EVENT_JSON = 1 << 1;
+    static final int PARAM_USE_CUSTOM_CLOSE = 1 << 2;
+    static final int PARAM_ALLOW_ORIENTATION_CHANGE = 1 << 3;
+    static final int PARAM_FORCE_ORIENTATION = 1 << 4;
+    static final int PARAM_WIDTH = 1 << 5;
+    static final int PARAM_HEIGHT = 1 << 6;
+    static final int PARAM_OFFSET_X = 1 << 7;
+    static final int PARAM_OFFSET_Y = 1 << 8;
+    static final int PARAM_CUSTOM_CLOSE_POSITION = 1 << 9;
+    static final int PARAM_ALLOW_OFFSCREEN = 1 << 10;
+
+    public Type type;
+
+    // createCalendarEvent
+    public String eventJSON;
+
+    // expand (optional), open, playVideo, storePicture
+    public String url;
+
+    // useCustomClose
+    public boolean useCustomClose;
+
+    // setOrientationProperties
+    public boolean allowOrientationChange;
+    public int forceOrientation;
+
+    // setResizeProperties
+    public int width;
+    public int height;
+    public int offsetX;
+    public int offsetY;
+    public int customClosePosition;
+    public boolean allowOffscreen;
+
+    int params;
+
+    public void reset() {
+        type = null;
+        eventJSON = null;
+        url = null;
+        useCustomClose = false;
+        allowOrientationChange = true;
+        forceOrientation = MRAIDOrientationProperties.FORCE_ORIENTATION_NONE;
+        width = 0;
+        height = 0;
+        offsetX = 0;
+        offsetY = 0;
+        customClosePosition = MRAIDResizeProperties.CUSTOM_CLOSE_POSITION_TOP_RIGHT;
+        allowOffscreen = false;
+        params = 0;
+    }
+
+    // Returns true if every parameter required by the command type was parsed.
+    boolean hasRequiredParams() {
+        int required;
+        switch (type) {
+            case CREATE_CALENDAR_EVENT:
+                required = PARAM_EVENT_JSON;
+                break;
+            case OPEN:
+            case PLAY_VIDEO:
+            case STORE_PICTURE:
+                required = PARAM_URL;
+                break;
+            case SET_ORIENTATION_PROPERTIES:
+                required = PARAM_ALLOW_ORIENTATION_CHANGE | PARAM_FORCE_ORIENTATION;
+                break;
+            case SET_RESIZE_PROPERTIES:
+                required = PARAM_WIDTH | PARAM_HEIGHT | PARAM_OFFSET_X | PARAM_OFFSET_Y
+                        | PARAM_CUSTOM_CLOSE_POSITION | PARAM_ALLOW_OFFSCREEN;
+                break;
+            case USE_CUSTOM_CLOSE:
+                required = PARAM_USE_CUSTOM_CLOSE;
+                break;
+            default:
+                required = 0;
+                break;
+        }
+        return (params & required) == required;
+    }
+
+    @Override
+    public String toString() {
+        return "MRAIDCommand " + (type != null ? type.jsName : "null");
+    }
+}
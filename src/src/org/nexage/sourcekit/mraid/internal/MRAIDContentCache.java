@@ -0,0 +1,98 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import android.os.SystemClock;
+import android.support.v4.util.LruCache;
+
+/**
+ * A small in-memory cache of prefetched creative content (the second part of 2-part
+ * expands), keyed by URL. Entries expire after a fixed time so stale content is
+ * never shown.
+ * <p/>
+ * All methods must be called on the main thread.
+ */
+public class MRAIDContentCache {
+
+    private final static String TAG = "MRAIDContentCache";
+
+    public final static long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+
+    // in characters
+    private final static int MAX_SIZE = 512 * 1024;
+
+    private static class Entry {
+        final String content;
+        final long expiresAt;
+
+        Entry(String content, long expiresAt) {
+            this.content = content;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final static LruCache<String, Entry> cache = new LruCache<String, Entry>(MAX_SIZE) {
+        @Override
+        protected int sizeOf(String key, Entry entry) {
+            return entry.content.length();
+        }
+    };
+
+    private static long ttlMillis = DEFAULT_TTL_MILLIS;
+
+    private static int hitCount;
+    private static int missCount;
+
+    private MRAIDContentCache() {
+    }
+
+    public static void put(String url, String content) {
+        if (content.length() > MAX_SIZE) {
+            return;
+        }
+        MRAIDLog.d(TAG, "put " + url);
+        cache.put(url, new Entry(content, SystemClock.elapsedRealtime() + ttlMillis));
+    }
+
+    // Returns the cached content for the URL, or null if there is none or it has expired.
+    public static String get(String url) {
+        Entry entry = cache.get(url);
+        if (entry == null) {
+            return null;
+        }
+        if (SystemClock.elapsedRealtime() >= entry.expiresAt) {
+            MRAIDLog.d(TAG, "expired " + url);
+            cache.remove(url);
+            return null;
+        }
+        return entry.content;
+    }
+
+    public static void clear() {
+        cache.evictAll();
+    }
+
+    public static long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public static void setTtlMillis(long ttlMillis) {
+        MRAIDContentCache.ttlMillis = ttlMillis;
+    }
+
+    // Records whether an expand was served from prefetched content.
+    public static void recordExpand(boolean isHit) {
+        if (isHit) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        MRAIDLog.d(TAG, "expand " + (isHit ? "hit" : "miss") + " (" + hitCount + "/" + (hitCount + missCount) + ")");
+    }
+
+    public static int getHitCount() {
+        return hitCount;
+    }
+
+    public static int getMissCount() {
+        return missCount;
+    }
+}
@@ -0,0 +1,349 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.os.Handler;
+import android.os.Looper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches creative content (such as the second part of a 2-part expand) off the
+ * main thread.
+ * <p/>
+ * All fetches share a small bounded executor, so connections to the same ad server
+ * are kept alive and reused between requests. Responses are read into a single
+ * buffer sized from Content-Length and decoded once with the charset from the
+ * Content-Type header. Results are delivered on the main thread unless the request
+ * was cancelled first.
+ */
+public class MRAIDContentFetcher {
+
+    private final static String TAG = "MRAIDContentFetcher";
+
+    public final static int CONNECT_TIMEOUT_MILLIS = 10000;
+    public final static int READ_TIMEOUT_MILLIS = 10000;
+
+    // the most a single response may hold, whatever length the server announces
+    public final static int MAX_CONTENT_BYTES = 4 * 1024 * 1024;
+
+    private final static int MAX_THREADS = 2;
+    private final static int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    private final static String ASSET_URL_PREFIX = "file:///android_asset/";
+
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final static ThreadPoolExecutor executor;
+
+    // Disconnects cancelled requests. The fetch threads may all be blocked in reads, so
+    // this has its own thread.
+    private final static ThreadPoolExecutor cancelExecutor;
+
+    static {
+        executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "MRAID-fetch-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+
+        cancelExecutor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "MRAID-cancel");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        cancelExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private final static Handler handler = new Handler(Looper.getMainLooper());
+
+    // prefetches that are still running, with the callbacks waiting for them (main thread only)
+    private final static Map<String, List<Callback>> prefetches = new HashMap<String, List<Callback>>();
+
+    public interface Callback {
+
+        // Called on the main thread with the content, or null if it could not be fetched.
+        public void onContentFetched(String url, String content);
+
+    }
+
+    /**
+     * A pending fetch. Cancelling it aborts the connection if possible and
+     * guarantees that the callback will not be called.
+     */
+    public static class Request {
+
+        private final String url;
+        private volatile boolean isCancelled;
+        private volatile HttpURLConnection connection;
+        private Future<?> future;
+
+        private Request(String url) {
+            this.url = url;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+
+        // Must be called on the main thread.
+        public void cancel() {
+            if (isCancelled) {
+                return;
+            }
+            MRAIDLog.d(TAG, "cancel " + url);
+            isCancelled = true;
+            if (future != null) {
+                future.cancel(false);
+            }
+            final HttpURLConnection conn = connection;
+            if (conn != null) {
+                // Disconnecting can write to the socket (a TLS close_notify), which isn't
+                // allowed on the main thread.
+                cancelExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        conn.disconnect();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Starts fetching the content of an http(s) URL or a file:///android_asset/ URL.
+     */
+    public static Request fetch(Context context, final String url, final Callback callback) {
+        final AssetManager assets = context.getApplicationContext().getAssets();
+        final Request request = new Request(url);
+        request.future = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                if (request.isCancelled) {
+                    return;
+                }
+                final String content = fetchNow(assets, url, request);
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!request.isCancelled) {
+                            callback.onContentFetched(url, content);
+                        }
+                    }
+                });
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Fetches the content in the background and stores it in MRAIDContentCache, unless
+     * it is already cached or being prefetched. Must be called on the main thread.
+     */
+    public static void prefetch(Context context, final String url) {
+        if (MRAIDContentCache.get(url) != null || prefetches.containsKey(url)) {
+            return;
+        }
+        MRAIDLog.d(TAG, "prefetch " + url);
+        prefetches.put(url, new ArrayList<Callback>());
+        fetch(context, url, new Callback() {
+            @Override
+            public void onContentFetched(String url, String content) {
+                if (content != null) {
+                    MRAIDContentCache.put(url, content);
+                }
+                for (Callback callback : prefetches.remove(url)) {
+                    callback.onContentFetched(url, content);
+                }
+            }
+        });
+    }
+
+    /**
+     * Like fetch, but uses content that has been prefetched or is being prefetched.
+     * Returns null if the content was already cached, in which case the callback has
+     * been called before returning. Must be called on the main thread.
+     */
+    public static Request fetchPrefetched(Context context, String url, final Callback callback) {
+        String content = MRAIDContentCache.get(url);
+        if (content != null) {
+            MRAIDContentCache.recordExpand(true);
+            callback.onContentFetched(url, content);
+            return null;
+        }
+        final List<Callback> waiting = prefetches.get(url);
+        if (waiting == null) {
+            MRAIDContentCache.recordExpand(false);
+            return fetch(context, url, callback);
+        }
+        // Wait for the prefetch rather than fetching the same content twice.
+        MRAIDContentCache.recordExpand(true);
+        final Request request = new Request(url);
+        waiting.add(new Callback() {
+            @Override
+            public void onContentFetched(String url, String content) {
+                if (!request.isCancelled) {
+                    callback.onContentFetched(url, content);
+                }
+            }
+        });
+        return request;
+    }
+
+    // Fetches the content on the calling thread. Returns null on failure.
+    static String fetchNow(AssetManager assets, String url, Request request) {
+        if (url.startsWith(ASSET_URL_PREFIX)) {
+            return fetchAsset(assets, url.substring(ASSET_URL_PREFIX.length()));
+        }
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            MRAIDLog.e(TAG, "Unknown location to fetch content from: " + url);
+            return null;
+        }
+
+        InputStream is = null;
+        try {
+            HttpURLConnection conn = (HttpURLConnection) (new URL(url)).openConnection();
+            conn.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            conn.setReadTimeout(READ_TIMEOUT_MILLIS);
+            if (request != null) {
+                request.connection = conn;
+                if (request.isCancelled) {
+                    return null;
+                }
+            }
+            int responseCode = conn.getResponseCode();
+            MRAIDLog.d(TAG, "response code " + responseCode);
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                closeQuietly(conn.getErrorStream());
+                return null;
+            }
+            is = conn.getInputStream();
+            byte[] data = readFully(is, conn.getContentLength());
+            String content = new String(data, charsetFromContentType(conn.getContentType()));
+            MRAIDLog.d(TAG, "fetch ok, length=" + content.length());
+            return content;
+        } catch (IOException e) {
+            if (request == null || !request.isCancelled) {
+                MRAIDLog.e(TAG, "fetch failed " + e.getLocalizedMessage());
+            }
+            return null;
+        } finally {
+            // Closing the stream (rather than disconnecting) keeps the connection alive for reuse.
+            closeQuietly(is);
+            if (request != null) {
+                request.connection = null;
+            }
+        }
+    }
+
+    private static String fetchAsset(AssetManager assets, String name) {
+        InputStream is = null;
+        try {
+            is = assets.open(name, AssetManager.ACCESS_BUFFER);
+            return new String(readFully(is, is.available()), UTF_8);
+        } catch (IOException e) {
+            MRAIDLog.e(TAG, "Error fetching file: " + e.getMessage());
+            return null;
+        } finally {
+            closeQuietly(is);
+        }
+    }
+
+    // Reads the whole stream into one array. expectedLength may be -1 if unknown. Fails
+    // instead of reading more than MAX_CONTENT_BYTES.
+    static byte[] readFully(InputStream is, int expectedLength) throws IOException {
+        if (expectedLength > MAX_CONTENT_BYTES) {
+            throw new IOException("content length " + expectedLength + " is over the limit of " + MAX_CONTENT_BYTES);
+        }
+        byte[] buf = new byte[expectedLength > 0 ? expectedLength : DEFAULT_BUFFER_SIZE];
+        int length = 0;
+        int count;
+        while (true) {
+            if (length == buf.length) {
+                // The buffer is full; only grow it if there really is more to read.
+                int next = is.read();
+                if (next == -1) {
+                    break;
+                }
+                if (length == MAX_CONTENT_BYTES) {
+                    throw new IOException("content is over the limit of " + MAX_CONTENT_BYTES + " bytes");
+                }
+                byte[] grown = new byte[Math.min(buf.length * 2, MAX_CONTENT_BYTES)];
+                System.arraycopy(buf, 0, grown, 0, length);
+                buf = grown;
+                buf[length++] = (byte) next;
+            }
+            count = is.read(buf, length, buf.length - length);
+            if (count == -1) {
+                break;
+            }
+            length += count;
+        }
+        if (length == buf.length) {
+            return buf;
+        }
+        byte[] result = new byte[length];
+        System.arraycopy(buf, 0, result, 0, length);
+        return result;
+    }
+
+    // The charset parameter of a Content-Type header, UTF-8 if there is none or it is not supported.
+    static Charset charsetFromContentType(String contentType) {
+        if (contentType != null) {
+            for (String param : contentType.split(";")) {
+                param = param.trim();
+                if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+                    String name = param.substring(8).trim();
+                    if (name.length() > 1 && name.startsWith("\"") && name.endsWith("\"")) {
+                        name = name.substring(1, name.length() - 1);
+                    }
+                    try {
+                        return Charset.forName(name);
+                    } catch (RuntimeException e) {
+                        MRAIDLog.w(TAG, "unsupported charset " + name);
+                    }
+                }
+            }
+        }
+        return UTF_8;
+    }
+
+    private static void closeQuietly(InputStream is) {
+        if (is != null) {
+            try {
+                is.close();
+            } catch (IOException e) {
+                // do nothing
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves creatives to the WebView as a stream from a synthetic origin, instead of
+ * handing loadDataWithBaseURL the whole document as a String.
+ * <p/>
+ * The WebView is pointed at a unique https://creative.local/ URL, and the request
+ * for it is answered with the creative's stream. Only the first few hundred bytes
+ * are looked at, to put MRAIDHtmlProcessor.getStreamedDocumentStart after the
+ * doctype (so the document doesn't fall into quirks mode); the rest is passed
+ * through untouched.
+ * <p/>
+ * The creative runs on the creative.local origin whatever its base URL, which is
+ * only written into a &lt;base&gt; tag. Serving it from a path under the base URL
+ * would need requests to that host intercepted too, which can't be done for file://
+ * base URLs, so localStorage, cookies and same-origin access are scoped to
+ * creative.local rather than to the base URL's origin.
+ */
+public class MRAIDCreativeStream {
+
+    private final static String TAG = "MRAIDCreativeStream";
+
+    public final static String ORIGIN = "https://creative.local/";
+
+    // how far into the creative the doctype is looked for
+    private final static int DOCTYPE_SEARCH_LENGTH = 512;
+
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final static AtomicInteger count = new AtomicInteger();
+
+    // A URL no other creative in this process has been loaded from.
+    public static String nextUrl() {
+        return ORIGIN + count.incrementAndGet();
+    }
+
+    public static boolean isCreativeUrl(String url) {
+        return url.startsWith(ORIGIN);
+    }
+
+    // An empty document, for creative.local URLs that don't belong to a creative being loaded.
+    public static InputStream empty() {
+        return new ByteArrayInputStream(new byte[0]);
+    }
+
+    // Returns the creative with our document start spliced in. Blocks until the start of the creative has been read.
+    public static InputStream wrap(InputStream creative, String baseUrl) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(creative, DOCTYPE_SEARCH_LENGTH);
+        byte[] start = new byte[DOCTYPE_SEARCH_LENGTH];
+        int length = 0;
+        int count;
+        while (length < start.length && (count = in.read(start, length, start.length - length)) != -1) {
+            length += count;
+        }
+        int insertAt = findDocumentStart(start, length);
+        in.unread(start, insertAt, length - insertAt);
+        MRAIDLog.d(TAG, "inserting document start at " + insertAt);
+
+        byte[] documentStart = MRAIDHtmlProcessor.getStreamedDocumentStart(baseUrl).getBytes(UTF_8);
+        return new SequenceInputStream(Collections.enumeration(Arrays.asList(
+                new ByteArrayInputStream(start, 0, insertAt),
+                new ByteArrayInputStream(documentStart),
+                in)));
+    }
+
+    // The offset just past the byte order mark and the doctype, if there are any.
+    static int findDocumentStart(byte[] data, int length) {
+        int pos = 0;
+        if (length >= 3 && (data[0] & 0xFF) == 0xEF && (data[1] & 0xFF) == 0xBB && (data[2] & 0xFF) == 0xBF) {
+            pos = 3;
+        }
+        int bomEnd = pos;
+        while (pos < length && (data[pos] == ' ' || data[pos] == '\t' || data[pos] == '\n' || data[pos] == '\r')) {
+            pos++;
+        }
+        if (!regionMatchesIgnoreCase(data, pos, length, "<!doctype")) {
+            return bomEnd;
+        }
+        for (int i = pos; i < length; i++) {
+            if (data[i] == '>') {
+                return i + 1;
+            }
+        }
+        // a doctype longer than we looked at; inserting inside it would break it
+        return bomEnd;
+    }
+
+    private static boolean regionMatchesIgnoreCase(byte[] data, int pos, int length, String s) {
+        if (length - pos < s.length()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.toLowerCase((char) data[pos + i]) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,79 +1,319 @@
 package org.nexage.sourcekit.mraid.internal;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class MRAIDHtmlProcessor {
 
+    // Where the WebView is pointed to for mraid.js. MRAIDView answers requests for it
+    // from memory, so it never goes to the network.
+    public final static String MRAID_JS_URL = "https://mraid.local/mraid.js";
+
+    // What the creative's own mraid.js script tag is replaced with.
+    public final static String MRAID_JS_TAG = "<script src='" + MRAID_JS_URL + "'></script>";
+
+    // The mraid.js script tag, which we point at MRAID_JS_URL.
+    // We expect the tag to look like this:
+    // <script src='mraid.js'></script>
+    // But we should also be to handle additional attributes and whitespace
+    // like this:
+    // <script type = 'text/javascript' src = 'mraid.js' > </script>
+    private final static String MRAID_SCRIPT_REGEX = "<script\\s+[^>]*\\bsrc\\s*=\\s*([\\\"\\\'])mraid\\.js\\1[^>]*>\\s*</script>\\n*";
+
+    // Everything the processor cares about, found in a single scan. The groups are
+    // the mraid.js script tag (1, with its quote in 2), html tags (3), head tags (4)
+    // and the start of body tags (5).
+    private final static Pattern TOKEN_PATTERN = Pattern.compile(
+            "(" + MRAID_SCRIPT_REGEX.replace("\\1", "\\2") + ")|(<html[^>]*>)|(<head[^>]*>)|(<body)",
+            Pattern.CASE_INSENSITIVE);
+
+    private final static int TOKEN_SCRIPT = 1;
+    private final static int TOKEN_HTML = 3;
+    private final static int TOKEN_HEAD = 4;
+
+    // Things that can load code the creative doesn't show us, which might then use mraid.
+    private final static Pattern HIDDEN_CODE_PATTERN = Pattern.compile(
+            "<script[^>]*\\ssrc\\s*=|<iframe|createElement\\(\\s*[\"']script",
+            Pattern.CASE_INSENSITIVE);
+
+    // mraid.expand('url') or mraid.expand("url") with a literal URL
+    private final static Pattern EXPAND_URL_PATTERN = Pattern.compile(
+            "mraid\\.expand\\(\\s*([\"'])([^\"'\\s]+)\\1\\s*\\)");
+
+    private final static String LS = System.getProperty("line.separator");
+
+    // Added to every head tag.
+    private final static String HEAD_CONTENT =
+            LS + "<meta name='viewport' content='width=device-width, initial-scale=1.0, minimum-scale=1.0, maximum-scale=1.0, user-scalable=no' />" +
+            LS + "<style>" + LS +
+            "body { margin:0; padding:0;}" + LS +
+            "*:not(input) { -webkit-touch-callout:none; -webkit-user-select:none; -webkit-text-size-adjust:none; }" + LS +
+            "</style>";
+
+    // Added after the html tag when there is no head tag.
+    private final static String HEAD_TAG_START = LS + "<head>";
+    private final static String HEAD_TAG_END = LS + "</head>";
+
+    // Wrapped around fragments that have no html tag.
+    private final static String DOCUMENT_START = "<html>";
+    private final static String BODY_START = LS + "<body><div align='center'>" + LS;
+    private final static String DOCUMENT_END = "</div></body>" + LS + "</html>";
+
+    /**
+     * Points the mraid.js script tag at MRAID_JS_URL, adds html, head and body tags as
+     * needed, and adds the viewport meta tag and our style tag to the head. A creative
+     * without an mraid.js script tag gets one at the start of its head, so mraid.js
+     * always runs before the creative's own scripts. Returns null if the document
+     * structure is broken.
+     * <p/>
+     * The creative is scanned once to collect the tags, and the result is then written
+     * into a single presized buffer.
+     */
     public static String processRawHtml(String rawHtml) {
-        StringBuffer processedHtml = new StringBuffer(rawHtml);
+        return processRawHtml(rawHtml, true);
+    }
 
-        // Remove the mraid.js script tag.
-        // We expect the tag to look like this:
-        // <script src='mraid.js'></script>
-        // But we should also be to handle additional attributes and whitespace
-        // like this:
-        // <script type = 'text/javascript' src = 'mraid.js' > </script>
+    /**
+     * Like processRawHtml(String), but a creative without an mraid.js script tag only
+     * gets one if addMraidJs is true. Used for plain creatives (see isPlainHtml).
+     */
+    public static String processRawHtml(String rawHtml, boolean addMraidJs) {
+        // Each token is stored as (type, start, end).
+        int[] tokens = new int[3 * 8];
+        int tokenCount = 0;
+        int headCount = 0;
+        int htmlCount = 0;
 
-        String regex;
-        Pattern pattern;
-        Matcher matcher;
+        // Checking for the presence of a tag is case sensitive, matching tags is not.
+        boolean hasHtmlTag = false;
+        boolean hasHeadTag = false;
+        boolean hasBodyTag = false;
+        boolean hasMraidScript = false;
 
-        // Remove the mraid.js script tag.
-        regex = "<script\\s+[^>]*\\bsrc\\s*=\\s*([\\\"\\\'])mraid\\.js\\1[^>]*>\\s*</script>\\n*";
-        pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-        matcher = pattern.matcher(processedHtml);
-        if (matcher.find()) {
-            processedHtml.delete(matcher.start(), matcher.end());
+        // Every token starts with '<', so only try the pattern there.
+        Matcher matcher = TOKEN_PATTERN.matcher(rawHtml);
+        int length = rawHtml.length();
+        for (int from = rawHtml.indexOf('<'); from != -1; from = rawHtml.indexOf('<', from + 1)) {
+            matcher.region(from, length);
+            if (!matcher.lookingAt()) {
+                continue;
+            }
+            from = matcher.end() - 1;
+            int type;
+            if (matcher.start(TOKEN_SCRIPT) != -1) {
+                // only the first one is removed
+                if (hasMraidScript) {
+                    continue;
+                }
+                hasMraidScript = true;
+                type = TOKEN_SCRIPT;
+            } else if (matcher.start(TOKEN_HTML) != -1) {
+                hasHtmlTag |= rawHtml.startsWith("<html", matcher.start());
+                htmlCount++;
+                type = TOKEN_HTML;
+            } else if (matcher.start(TOKEN_HEAD) != -1) {
+                hasHeadTag |= rawHtml.startsWith("<head", matcher.start());
+                headCount++;
+                type = TOKEN_HEAD;
+            } else {
+                hasBodyTag |= rawHtml.startsWith("<body", matcher.start());
+                continue;
+            }
+            if (tokenCount * 3 == tokens.length) {
+                int[] grown = new int[tokens.length * 2];
+                System.arraycopy(tokens, 0, grown, 0, tokens.length);
+                tokens = grown;
+            }
+            tokens[tokenCount * 3] = type;
+            tokens[tokenCount * 3 + 1] = matcher.start();
+            tokens[tokenCount * 3 + 2] = matcher.end();
+            tokenCount++;
         }
 
-        // Add html, head, and/or body tags as needed.
-        boolean hasHtmlTag = (rawHtml.indexOf("<html") != -1);
-        boolean hasHeadTag = (rawHtml.indexOf("<head") != -1);
-        boolean hasBodyTag = (rawHtml.indexOf("<body") != -1);
-
         // basic sanity checks
         if ((!hasHtmlTag && (hasHeadTag || hasBodyTag)) || (hasHtmlTag && !hasBodyTag)) {
             return null;
         }
-        
-        String ls = System.getProperty("line.separator");
 
+        // html tag exists, head tag doesn't, so add it
+        boolean isAddingHead = hasHtmlTag && !hasHeadTag;
+
+        // without a script tag of its own, mraid.js goes into the first head
+        boolean isAddingScript = addMraidJs && !hasMraidScript;
+
+        int headTagLength = HEAD_TAG_START.length() + HEAD_CONTENT.length() + HEAD_TAG_END.length();
+        int capacity = rawHtml.length() + headCount * HEAD_CONTENT.length()
+                + (isAddingScript ? MRAID_JS_TAG.length() : 0);
         if (!hasHtmlTag) {
-            processedHtml.insert(0, "<html>" + ls + "<head>" + ls + "</head>" + ls + "<body><div align='center'>" + ls);
-            processedHtml.append("</div></body>" + ls + "</html>");
-        } else if (!hasHeadTag) {
-            // html tag exists, head tag doesn't, so add it
-            regex = "<html[^>]*>";
-            pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-            matcher = pattern.matcher(processedHtml);
-            int idx = 0;
-            while (matcher.find(idx)) {
-                processedHtml.insert(matcher.end(), ls + "<head>" + ls + "</head>");
-                idx = matcher.end();
-            }
+            capacity += DOCUMENT_START.length() + headTagLength + BODY_START.length() + DOCUMENT_END.length();
+        } else if (isAddingHead) {
+            capacity += htmlCount * headTagLength;
         }
+        StringBuilder processedHtml = new StringBuilder(capacity);
 
-        // Add meta and style tags to head tag.
-        String metaTag =
-                "<meta name='viewport' content='width=device-width, initial-scale=1.0, minimum-scale=1.0, maximum-scale=1.0, user-scalable=no' />";
+        if (!hasHtmlTag) {
+            processedHtml.append(DOCUMENT_START);
+            appendHead(processedHtml, isAddingScript);
+            isAddingScript = false;
+            processedHtml.append(BODY_START);
+        }
 
-        String styleTag =
-                "<style>" + ls +
-                "body { margin:0; padding:0;}" + ls +
-                "*:not(input) { -webkit-touch-callout:none; -webkit-user-select:none; -webkit-text-size-adjust:none; }" + ls +
-                "</style>";
+        int pos = 0;
+        for (int i = 0; i < tokenCount; i++) {
+            int type = tokens[i * 3];
+            int start = tokens[i * 3 + 1];
+            int end = tokens[i * 3 + 2];
+            processedHtml.append(rawHtml, pos, start);
+            pos = end;
+            switch (type) {
+                case TOKEN_SCRIPT:
+                    processedHtml.append(MRAID_JS_TAG);
+                    break;
+                case TOKEN_HTML:
+                    processedHtml.append(rawHtml, start, end);
+                    if (isAddingHead) {
+                        appendHead(processedHtml, isAddingScript);
+                        isAddingScript = false;
+                    }
+                    break;
+                case TOKEN_HEAD:
+                    processedHtml.append(rawHtml, start, end);
+                    if (isAddingScript && !isAddingHead) {
+                        processedHtml.append(MRAID_JS_TAG);
+                        isAddingScript = false;
+                    }
+                    processedHtml.append(HEAD_CONTENT);
+                    break;
+            }
+        }
+        processedHtml.append(rawHtml, pos, rawHtml.length());
 
-        regex = "<head[^>]*>";
-        pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
-        matcher = pattern.matcher(processedHtml);
-        int idx = 0;
-        while (matcher.find(idx)) {
-            processedHtml.insert(matcher.end(), ls + metaTag + ls + styleTag);
-            idx = matcher.end();
+        if (!hasHtmlTag) {
+            processedHtml.append(DOCUMENT_END);
         }
 
         return processedHtml.toString();
     }
 
+    private static void appendHead(StringBuilder html, boolean isAddingScript) {
+        html.append(HEAD_TAG_START);
+        if (isAddingScript) {
+            html.append(MRAID_JS_TAG);
+        }
+        html.append(HEAD_CONTENT).append(HEAD_TAG_END);
+    }
+
+    /**
+     * Whether a creative is plain HTML that has no use for mraid.js: it never mentions
+     * mraid, and it doesn't load scripts or frames from elsewhere that could. This is
+     * a quick static check, so anything it can't see through counts as MRAID.
+     */
+    public static boolean isPlainHtml(String rawHtml) {
+        return rawHtml.indexOf("mraid") == -1 && !HIDDEN_CODE_PATTERN.matcher(rawHtml).find();
+    }
+
+    /**
+     * Only makes sure the creative loads mraid.js from MRAID_JS_URL: its mraid.js script
+     * tag is pointed there, or, without one, MRAID_JS_TAG is added after its first head
+     * tag, else after its first html tag, else at its start. Nothing else is changed, so
+     * the creative is shown as it was served. Used for part 2 of a 2-part expand.
+     */
+    public static String addMraidJs(String rawHtml) {
+        int headEnd = -1;
+        int htmlEnd = -1;
+        Matcher matcher = TOKEN_PATTERN.matcher(rawHtml);
+        int length = rawHtml.length();
+        for (int from = rawHtml.indexOf('<'); from != -1; from = rawHtml.indexOf('<', from + 1)) {
+            matcher.region(from, length);
+            if (!matcher.lookingAt()) {
+                continue;
+            }
+            from = matcher.end() - 1;
+            if (matcher.start(TOKEN_SCRIPT) != -1) {
+                return rawHtml.substring(0, matcher.start()) + MRAID_JS_TAG + rawHtml.substring(matcher.end());
+            } else if (matcher.start(TOKEN_HTML) != -1) {
+                if (htmlEnd == -1) {
+                    htmlEnd = matcher.end();
+                }
+            } else if (matcher.start(TOKEN_HEAD) != -1) {
+                if (headEnd == -1) {
+                    headEnd = matcher.end();
+                }
+            }
+        }
+        int insertAt = headEnd != -1 ? headEnd : (htmlEnd != -1 ? htmlEnd : 0);
+        return rawHtml.substring(0, insertAt) + MRAID_JS_TAG + rawHtml.substring(insertAt);
+    }
+
+    /**
+     * Whether the WebView is asking for mraid.js: at MRAID_JS_URL, or as mraid.js relative
+     * to the creative's base URL (a script the creative adds itself). Query and fragment
+     * are ignored. Other URLs that happen to end in /mraid.js are left alone.
+     */
+    public static boolean isMraidJsUrl(String url, String baseUrl) {
+        if (url.equals(MRAID_JS_URL)) {
+            return true;
+        }
+        if (baseUrl == null) {
+            return false;
+        }
+        // the directory relative URLs resolve against
+        int dirEnd = baseUrl.lastIndexOf('/') + 1;
+        int authorityStart = baseUrl.indexOf("://");
+        if (authorityStart != -1 && dirEnd <= authorityStart + 3) {
+            // no path at all, like http://example.com
+            dirEnd = baseUrl.length();
+            if (!url.startsWith(baseUrl) || !url.startsWith("/", dirEnd)) {
+                return false;
+            }
+            dirEnd++;
+        } else if (dirEnd == 0 || !url.regionMatches(0, baseUrl, 0, dirEnd)) {
+            return false;
+        }
+        int end = url.length();
+        int query = url.indexOf('?', dirEnd);
+        if (query != -1) {
+            end = query;
+        }
+        int fragment = url.indexOf('#', dirEnd);
+        if (fragment != -1 && fragment < end) {
+            end = fragment;
+        }
+        return end - dirEnd == 8 && url.startsWith("mraid.js", dirEnd);
+    }
+
+    /**
+     * What goes at the start of a streamed creative, which can't be processed as a
+     * whole: mraid.js, our head content and, if there is a base URL, a base tag so
+     * relative URLs resolve against it. The HTML parser puts all of it into the head,
+     * however the creative continues.
+     */
+    public static String getStreamedDocumentStart(String baseUrl) {
+        StringBuilder start = new StringBuilder(256);
+        if (baseUrl != null) {
+            start.append("<base href=\"").append(baseUrl.replace("&", "&amp;").replace("\"", "&quot;"))
+                    .append("\">");
+        }
+        start.append(MRAID_JS_TAG).append(HEAD_CONTENT).append(LS);
+        return start.toString();
+    }
+
+    // Returns the URLs the creative passes to mraid.expand as string literals, as written.
+    public static List<String> findExpandUrls(String rawHtml) {
+        List<String> urls = new ArrayList<String>();
+        if (rawHtml.indexOf("mraid.expand") == -1) {
+            return urls;
+        }
+        Matcher matcher = EXPAND_URL_PATTERN.matcher(rawHtml);
+        while (matcher.find()) {
+            String url = matcher.group(2);
+            if (!urls.contains(url)) {
+                urls.add(url);
+            }
+        }
+        return urls;
+    }
+
 }
@@ -0,0 +1,88 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.webkit.JavascriptInterface;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The object mraid.js talks to when it is registered with addJavascriptInterface.
+ * mraid.js collects all commands issued during one JavaScript task and sends them
+ * in a single postCommands call as a JSON array like this:
+ *
+ * [{"command":"setResizeProperties","params":{"width":"320",...}},{"command":"resize","params":{}}]
+ *
+ * The commands are validated here and then handed to the listener on the main thread,
+ * in the order they were issued.
+ */
+public class MRAIDJavascriptBridge {
+
+    private final static String TAG = "MRAIDJavascriptBridge";
+
+    // name of the object in the JavaScript global scope
+    public final static String NAME = "MRAIDBridge";
+
+    public interface Listener {
+
+        public void onCommand(MRAIDCommand command);
+
+    }
+
+    private final Handler handler;
+    private final Listener listener;
+    private final MRAIDParser parser = new MRAIDParser();
+
+    public MRAIDJavascriptBridge(Listener listener) {
+        this.handler = new Handler(Looper.getMainLooper());
+        this.listener = listener;
+    }
+
+    // Called by mraid.js on a WebView background thread.
+    @JavascriptInterface
+    public synchronized void postCommands(String json) {
+        MRAIDLog.d(TAG, "postCommands " + json);
+
+        // Commands are handed over to the main thread, so each one needs its own record.
+        final List<MRAIDCommand> commands = new ArrayList<MRAIDCommand>();
+        try {
+            JSONArray array = new JSONArray(json);
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject object = array.getJSONObject(i);
+                Map<String, String> params = new HashMap<String, String>();
+                JSONObject jsonParams = object.optJSONObject("params");
+                if (jsonParams != null) {
+                    Iterator<String> keys = jsonParams.keys();
+                    while (keys.hasNext()) {
+                        String key = keys.next();
+                        params.put(key, jsonParams.getString(key));
+                    }
+                }
+                MRAIDCommand command = new MRAIDCommand();
+                if (parser.parseCommand(object.getString("command"), params, command)) {
+                    commands.add(command);
+                }
+            }
+        } catch (JSONException e) {
+            MRAIDLog.w(TAG, "postCommands malformed batch " + e.getLocalizedMessage());
+            return;
+        }
+
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                for (MRAIDCommand command : commands) {
+                    listener.onCommand(command);
+                }
+            }
+        });
+    }
+}
@@ -1,98 +1,302 @@
 package org.nexage.sourcekit.mraid.internal;
 
-import java.util.Arrays;
-import java.util.HashMap;
+import org.nexage.sourcekit.mraid.properties.MRAIDOrientationProperties;
+import org.nexage.sourcekit.mraid.properties.MRAIDResizeProperties;
+
+import java.nio.charset.Charset;
 import java.util.Map;
 
+/**
+ * Parses MRAID commands into a reusable MRAIDCommand.
+ * <p/>
+ * The parser makes a single pass over the command URL and decodes each parameter
+ * value into an internal byte buffer, from which numbers, booleans and keywords are
+ * read directly. Malformed commands are rejected by returning false; no exceptions
+ * are thrown or caught on the way.
+ * <p/>
+ * A parser keeps state between calls, so an instance must only be used from one thread.
+ */
 public class MRAIDParser {
 
     private final static String TAG = "MRAIDParser";
 
-    public Map<String, String> parseCommandUrl(String commandUrl) {
+    private final static String SCHEME = "mraid://";
+
+    private final static Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final static String[] FORCE_ORIENTATION_NAMES = {
+            "portrait",
+            "landscape",
+            "none",
+    };
+
+    private final static String[] CUSTOM_CLOSE_POSITION_NAMES = {
+            "top-left",
+            "top-center",
+            "top-right",
+            "center",
+            "bottom-left",
+            "bottom-center",
+            "bottom-right",
+    };
+
+    // the decoded value of the parameter being parsed
+    private byte[] value = new byte[256];
+    private int valueLength;
+
+    public boolean parseCommandUrl(String commandUrl, MRAIDCommand command) {
         // The command is a URL string that looks like this:
         //
         // mraid://command?param1=val1&param2=val2&...
         //
-        // We need to parse out the command and create a map containing it and
-        // its the parameters and their associated values.
-
-        MRAIDLog.d(TAG, "parseCommandUrl " + commandUrl);
-
-        // Remove mraid:// prefix.
-        String s = commandUrl.substring(8);
-
-        String command;
-        Map<String, String> params = new HashMap<String, String>();
-
-        // Check for parameters, parse them if found
-        int idx = s.indexOf('?');
-        if (idx != -1) {
-            command = s.substring(0, idx);
-            String paramStr = s.substring(idx + 1);
-            String[] paramArray = paramStr.split("&");
-            for (String param : paramArray) {
-                idx = param.indexOf('=');
-                String key = param.substring(0, idx);
-                String val = param.substring(idx + 1);
-                params.put(key, val);
+        // Parameter values are encoded with encodeURIComponent by mraid.js.
+
+        command.reset();
+
+        if (!commandUrl.startsWith(SCHEME)) {
+            MRAIDLog.w(TAG, "command URL " + commandUrl + " is malformed");
+            return false;
+        }
+
+        int end = commandUrl.length();
+        int nameEnd = commandUrl.indexOf('?', SCHEME.length());
+        if (nameEnd == -1) {
+            nameEnd = end;
+        }
+
+        command.type = MRAIDCommand.Type.fromName(commandUrl, SCHEME.length(), nameEnd);
+        if (command.type == null) {
+            MRAIDLog.w(TAG, "command URL " + commandUrl + " is unknown");
+            return false;
+        }
+
+        int pos = nameEnd + 1;
+        while (pos < end) {
+            int paramEnd = commandUrl.indexOf('&', pos);
+            if (paramEnd == -1) {
+                paramEnd = end;
             }
-        } else {
-            command = s;
+            int keyEnd = commandUrl.indexOf('=', pos);
+            if (keyEnd == -1 || keyEnd > paramEnd
+                    || !loadValue(commandUrl, keyEnd + 1, paramEnd, true)
+                    || !setParam(command, commandUrl, pos, keyEnd)) {
+                MRAIDLog.w(TAG, "command URL " + commandUrl + " is malformed");
+                return false;
+            }
+            pos = paramEnd + 1;
+        }
+
+        if (!command.hasRequiredParams()) {
+            MRAIDLog.w(TAG, "command " + command.type.jsName + " is missing parameters");
+            return false;
         }
+        return true;
+    }
+
+    // Used for commands that arrive through the JavaScript bridge, whose values are not URL encoded.
+    public boolean parseCommand(String name, Map<String, String> params, MRAIDCommand command) {
+        command.reset();
 
-        // Check for valid command.
-        if (!isValidCommand(command)) {
-            MRAIDLog.w("command " + command + " is unknown");
-            return null;
+        command.type = MRAIDCommand.Type.fromName(name);
+        if (command.type == null) {
+            MRAIDLog.w(TAG, "command " + name + " is unknown");
+            return false;
         }
 
-        // Check for valid parameters for the given command.
-        if (!checkParamsForCommand(command, params)) {
-            MRAIDLog.w("command URL " + commandUrl + " is missing parameters");
-            return null;
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            String key = param.getKey();
+            String val = param.getValue();
+            if (!loadValue(val, 0, val.length(), false) || !setParam(command, key, 0, key.length())) {
+                MRAIDLog.w(TAG, "command " + name + " is malformed");
+                return false;
+            }
         }
 
-        Map<String, String> commandMap = new HashMap<String, String>();
-        commandMap.put("command", command);
-        commandMap.putAll(params);
-        return commandMap;
+        if (!command.hasRequiredParams()) {
+            MRAIDLog.w(TAG, "command " + name + " is missing parameters");
+            return false;
+        }
+        return true;
+    }
+
+    /**************************************************************************
+     * Parameters
+     **************************************************************************/
+
+    // Stores the current value in the field named by s[start, end). Unknown parameters are ignored.
+    private boolean setParam(MRAIDCommand command, String s, int start, int end) {
+        if (isKey("url", s, start, end)) {
+            command.url = valueString();
+            command.params |= MRAIDCommand.PARAM_URL;
+        } else if (isKey("eventJSON", s, start, end)) {
+            command.eventJSON = valueString();
+            command.params |= MRAIDCommand.PARAM_EVENT_JSON;
+        } else if (isKey("useCustomClose", s, start, end)) {
+            command.useCustomClose = valueBoolean();
+            command.params |= MRAIDCommand.PARAM_USE_CUSTOM_CLOSE;
+        } else if (isKey("allowOrientationChange", s, start, end)) {
+            command.allowOrientationChange = valueBoolean();
+            command.params |= MRAIDCommand.PARAM_ALLOW_ORIENTATION_CHANGE;
+        } else if (isKey("forceOrientation", s, start, end)) {
+            command.forceOrientation = valueKeyword(FORCE_ORIENTATION_NAMES,
+                    MRAIDOrientationProperties.FORCE_ORIENTATION_NONE);
+            command.params |= MRAIDCommand.PARAM_FORCE_ORIENTATION;
+        } else if (isKey("customClosePosition", s, start, end)) {
+            command.customClosePosition = valueKeyword(CUSTOM_CLOSE_POSITION_NAMES,
+                    MRAIDResizeProperties.CUSTOM_CLOSE_POSITION_TOP_RIGHT);
+            command.params |= MRAIDCommand.PARAM_CUSTOM_CLOSE_POSITION;
+        } else if (isKey("allowOffscreen", s, start, end)) {
+            command.allowOffscreen = valueBoolean();
+            command.params |= MRAIDCommand.PARAM_ALLOW_OFFSCREEN;
+        } else if (isKey("width", s, start, end)) {
+            if (!isValueInt()) {
+                return false;
+            }
+            command.width = valueInt();
+            command.params |= MRAIDCommand.PARAM_WIDTH;
+        } else if (isKey("height", s, start, end)) {
+            if (!isValueInt()) {
+                return false;
+            }
+            command.height = valueInt();
+            command.params |= MRAIDCommand.PARAM_HEIGHT;
+        } else if (isKey("offsetX", s, start, end)) {
+            if (!isValueInt()) {
+                return false;
+            }
+            command.offsetX = valueInt();
+            command.params |= MRAIDCommand.PARAM_OFFSET_X;
+        } else if (isKey("offsetY", s, start, end)) {
+            if (!isValueInt()) {
+                return false;
+            }
+            command.offsetY = valueInt();
+            command.params |= MRAIDCommand.PARAM_OFFSET_Y;
+        }
+        return true;
     }
 
-    private boolean isValidCommand(String command) {
-        final String[] commands = {
-                "close",
-                "createCalendarEvent",
-                "expand",
-                "open",
-                "playVideo",
-                "resize",
-                "setOrientationProperties",
-                "setResizeProperties",
-                "storePicture",
-                "useCustomClose"
-        };
-        return (Arrays.asList(commands).contains(command));
+    private static boolean isKey(String key, String s, int start, int end) {
+        return key.length() == end - start && s.regionMatches(start, key, 0, key.length());
     }
 
-    private boolean checkParamsForCommand(String command, Map<String, String> params) {
-        if (command.equals("createCalendarEvent")) {
-            return params.containsKey("eventJSON");
-        } else if (command.equals("open") || command.equals("playVideo") || command.equals("storePicture")) {
-            return params.containsKey("url");
-        } else if (command.equals("setOrientationProperties")) {
-            return params.containsKey("allowOrientationChange") &&
-                    params.containsKey("forceOrientation");
-        } else if (command.equals("setResizeProperties")) {
-            return params.containsKey("width") &&
-                    params.containsKey("height") &&
-                    params.containsKey("offsetX") &&
-                    params.containsKey("offsetY") &&
-                    params.containsKey("customClosePosition") &&
-                    params.containsKey("allowOffscreen");
-        } else if (command.equals("useCustomClose")) {
-            return params.containsKey("useCustomClose");
+    /**************************************************************************
+     * Values
+     **************************************************************************/
+
+    // Copies s[start, end) into the value buffer as UTF-8, percent-decoding it if asked to.
+    private boolean loadValue(String s, int start, int end, boolean decode) {
+        valueLength = 0;
+        int i = start;
+        while (i < end) {
+            char c = s.charAt(i);
+            if (decode && c == '%') {
+                if (i + 2 >= end) {
+                    return false;
+                }
+                int hi = Character.digit(s.charAt(i + 1), 16);
+                int lo = Character.digit(s.charAt(i + 2), 16);
+                if (hi == -1 || lo == -1) {
+                    return false;
+                }
+                appendByte((hi << 4) | lo);
+                i += 3;
+            } else if (decode && c == '+') {
+                appendByte(' ');
+                i++;
+            } else if (c < 0x80) {
+                appendByte(c);
+                i++;
+            } else {
+                int codePoint = Character.codePointAt(s, i);
+                appendCodePoint(codePoint);
+                i += Character.charCount(codePoint);
+            }
         }
         return true;
     }
 
+    private void appendCodePoint(int codePoint) {
+        if (codePoint < 0x800) {
+            appendByte(0xC0 | (codePoint >> 6));
+        } else if (codePoint < 0x10000) {
+            appendByte(0xE0 | (codePoint >> 12));
+            appendByte(0x80 | ((codePoint >> 6) & 0x3F));
+        } else {
+            appendByte(0xF0 | (codePoint >> 18));
+            appendByte(0x80 | ((codePoint >> 12) & 0x3F));
+            appendByte(0x80 | ((codePoint >> 6) & 0x3F));
+        }
+        appendByte(0x80 | (codePoint & 0x3F));
+    }
+
+    private void appendByte(int b) {
+        if (valueLength == value.length) {
+            byte[] grown = new byte[value.length * 2];
+            System.arraycopy(value, 0, grown, 0, valueLength);
+            value = grown;
+        }
+        value[valueLength++] = (byte) b;
+    }
+
+    private String valueString() {
+        return new String(value, 0, valueLength, UTF_8);
+    }
+
+    // same as Boolean.parseBoolean
+    private boolean valueBoolean() {
+        return valueLength == 4
+                && (value[0] | 0x20) == 't'
+                && (value[1] | 0x20) == 'r'
+                && (value[2] | 0x20) == 'u'
+                && (value[3] | 0x20) == 'e';
+    }
+
+    // Returns the index of the value in names, or defaultValue if it is not one of them.
+    private int valueKeyword(String[] names, int defaultValue) {
+        for (int n = 0; n < names.length; n++) {
+            String name = names[n];
+            if (name.length() != valueLength) {
+                continue;
+            }
+            int i = 0;
+            while (i < valueLength && value[i] == name.charAt(i)) {
+                i++;
+            }
+            if (i == valueLength) {
+                return n;
+            }
+        }
+        return defaultValue;
+    }
+
+    // same range and syntax as Integer.parseInt
+    private boolean isValueInt() {
+        int i = (valueLength > 0 && (value[0] == '-' || value[0] == '+')) ? 1 : 0;
+        if (i == valueLength) {
+            return false;
+        }
+        long result = 0;
+        for (; i < valueLength; i++) {
+            int digit = value[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            result = result * 10 + digit;
+            if (result > (long) Integer.MAX_VALUE + 1) {
+                return false;
+            }
+        }
+        return value[0] == '-' || result <= Integer.MAX_VALUE;
+    }
+
+    private int valueInt() {
+        boolean negative = value[0] == '-';
+        int i = (negative || value[0] == '+') ? 1 : 0;
+        long result = 0;
+        for (; i < valueLength; i++) {
+            result = result * 10 + (value[i] - '0');
+        }
+        return (int) (negative ? -result : result);
+    }
 }
@@ -0,0 +1,639 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.Build;
+import android.os.SystemClock;
+import android.webkit.CookieManager;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A size-bounded disk cache for the static resources creatives load (scripts,
+ * stylesheets, images and fonts), shared by all MRAIDViews.
+ * <p/>
+ * MRAIDView's WebViewClient hands GET requests for these resources to
+ * intercept(), which serves them from disk when a fresh copy is cached and
+ * otherwise downloads them itself, storing the response if its Content-Type is
+ * one of the static types and its Cache-Control header allows it (a max-age is
+ * required; no-store, no-cache and private responses are never stored, and
+ * neither are responses that vary on anything but Accept-Encoding).
+ * Least recently used entries are evicted when the cache grows over its size.
+ * <p/>
+ * A response the WebView doesn't load itself must carry its headers (CORS in
+ * particular), so the cache only works on API 21+, where WebResourceResponse
+ * takes them. Downloads send the WebView's request headers, user agent and
+ * cookies, and cookies set by the response go to the CookieManager. A URL whose
+ * response turned out not to be storable is left to the WebView from then on.
+ * <p/>
+ * Methods may be called from any thread; intercept() is called on a WebView
+ * background thread.
+ */
+public class MRAIDResourceCache {
+
+    private final static String TAG = "MRAIDResourceCache";
+
+    public final static long DEFAULT_MAX_BYTES = 20 * 1024 * 1024;
+
+    private final static String DIRECTORY = "mraid-resources";
+
+    // bumped when the file format changes
+    private final static int VERSION = 2;
+
+    // how many URLs with responses that can't be stored are remembered
+    private final static int MAX_UNCACHEABLE_URLS = 256;
+
+    // Only 200 responses are served, and HTTP/2 has no reason phrase, so this is
+    // what the WebView sees (WebResourceResponse rejects an empty one).
+    private final static String REASON_PHRASE = "OK";
+
+    // response headers that describe the connection or the encoding on the wire
+    // rather than the resource, in lower case
+    private final static String[] DROPPED_HEADERS = {
+            "connection",
+            "content-encoding",
+            "content-length",
+            "keep-alive",
+            "set-cookie",
+            "set-cookie2",
+            "transfer-encoding",
+    };
+
+    private final static String[] CACHEABLE_EXTENSIONS = {
+            "js", "css",
+            "png", "jpg", "jpeg", "gif", "webp", "svg",
+            "woff", "woff2", "ttf", "otf", "eot",
+    };
+
+    private final static String[] CACHEABLE_CONTENT_TYPES = {
+            "text/css",
+            "text/javascript",
+            "application/javascript",
+            "application/x-javascript",
+            "image/",
+            "font/",
+            "application/font-",
+            "application/x-font-",
+            "application/vnd.ms-fontobject",
+    };
+
+    /**
+     * Cache statistics for a single ad.
+     */
+    public static class Stats {
+
+        private final AtomicInteger hitCount = new AtomicInteger();
+        private final AtomicInteger missCount = new AtomicInteger();
+        private final AtomicLong bytesSaved = new AtomicLong();
+
+        public int getHitCount() {
+            return hitCount.get();
+        }
+
+        public int getMissCount() {
+            return missCount.get();
+        }
+
+        // the fraction of intercepted requests that were served from disk
+        public float getHitRatio() {
+            int hits = hitCount.get();
+            int total = hits + missCount.get();
+            return total == 0 ? 0 : (float) hits / total;
+        }
+
+        // the number of bytes served from disk instead of the network
+        public long getBytesSaved() {
+            return bytesSaved.get();
+        }
+    }
+
+    /**
+     * A response from disk or the network, independent of the WebView classes.
+     */
+    static class Response {
+        final String mimeType;
+        final String encoding;
+        final Map<String, String> headers;
+        final InputStream data;
+        // Set-Cookie values of a downloaded response, which are never stored
+        final List<String> cookies;
+
+        Response(String mimeType, String encoding, Map<String, String> headers, InputStream data, List<String> cookies) {
+            this.mimeType = mimeType;
+            this.encoding = encoding;
+            this.headers = headers;
+            this.data = data;
+            this.cookies = cookies;
+        }
+    }
+
+    private static class Entry {
+        final File file;
+        final long size;
+        final long expiresAt;
+
+        Entry(File file, long size, long expiresAt) {
+            this.file = file;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static MRAIDResourceCache instance;
+
+    private final File directory;
+    // in access order, so the first entry is the least recently used
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long size;
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private boolean isIndexed;
+
+    // keys of URLs the WebView loads itself, because their responses can't be stored
+    private final LinkedHashMap<String, Boolean> uncacheable = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_UNCACHEABLE_URLS;
+        }
+    };
+
+    public static synchronized MRAIDResourceCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new MRAIDResourceCache(new File(context.getApplicationContext().getCacheDir(), DIRECTORY));
+        }
+        return instance;
+    }
+
+    MRAIDResourceCache(File directory) {
+        this.directory = directory;
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized void setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        trim();
+    }
+
+    public synchronized long getSize() {
+        index();
+        return size;
+    }
+
+    public synchronized void clear() {
+        index();
+        for (Entry entry : entries.values()) {
+            entry.file.delete();
+        }
+        entries.clear();
+        uncacheable.clear();
+        size = 0;
+    }
+
+    // Returns true for the requests the cache wants to handle.
+    public static boolean isCacheable(String url) {
+        if (!url.startsWith("http://") && !url.startsWith("https://")) {
+            return false;
+        }
+        int end = url.length();
+        int query = url.indexOf('?');
+        if (query != -1) {
+            end = query;
+        }
+        int fragment = url.indexOf('#');
+        if (fragment != -1 && fragment < end) {
+            end = fragment;
+        }
+        int dot = url.lastIndexOf('.', end);
+        if (dot == -1 || dot < url.lastIndexOf('/', end)) {
+            return false;
+        }
+        String extension = url.substring(dot + 1, end).toLowerCase(Locale.US);
+        return Arrays.asList(CACHEABLE_EXTENSIONS).contains(extension);
+    }
+
+    /**
+     * Serves a GET request for a cacheable URL, from disk if possible and otherwise
+     * from the network. Returns null if the WebView should load the URL itself.
+     * userAgent is the WebView's, which isn't among the request headers.
+     */
+    @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+    public WebResourceResponse intercept(WebResourceRequest request, String userAgent, Stats stats) {
+        String url = request.getUrl().toString();
+        Map<String, String> requestHeaders = request.getRequestHeaders();
+        if (!"GET".equals(request.getMethod()) || !isCacheable(url) || requestHeaders.containsKey("Range")) {
+            return null;
+        }
+        Map<String, String> headers = new HashMap<String, String>(requestHeaders);
+        if (userAgent != null) {
+            headers.put("User-Agent", userAgent);
+        }
+        CookieManager cookieManager = CookieManager.getInstance();
+        String cookie = cookieManager.getCookie(url);
+        if (cookie != null) {
+            headers.put("Cookie", cookie);
+        }
+
+        Response response = load(url, headers, stats);
+        if (response == null) {
+            return null;
+        }
+        for (String setCookie : response.cookies) {
+            cookieManager.setCookie(url, setCookie);
+        }
+        return new WebResourceResponse(response.mimeType, response.encoding, HttpURLConnection.HTTP_OK, REASON_PHRASE,
+                response.headers, response.data);
+    }
+
+    // The part of intercept that doesn't involve the WebView. Returns null if the WebView should load the URL itself.
+    Response load(String url, Map<String, String> requestHeaders, Stats stats) {
+        String key = keyForUrl(url);
+
+        Response response = get(key, url, stats);
+        if (response != null) {
+            return response;
+        }
+        stats.missCount.incrementAndGet();
+        synchronized (this) {
+            if (uncacheable.containsKey(key)) {
+                return null;
+            }
+        }
+        return download(key, url, requestHeaders);
+    }
+
+    /**************************************************************************
+     * Disk
+     **************************************************************************/
+
+    private Response get(String key, String url, Stats stats) {
+        Entry entry;
+        synchronized (this) {
+            index();
+            entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() >= entry.expiresAt) {
+                remove(key);
+                return null;
+            }
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(entry.file)));
+            if (in.readInt() != VERSION || !url.equals(in.readUTF())) {
+                // a stale file or a hash collision
+                in.close();
+                return null;
+            }
+            in.readLong();
+            in.readInt();
+            String mimeType = in.readUTF();
+            String encoding = in.readUTF();
+            int headerCount = in.readInt();
+            Map<String, String> headers = new HashMap<String, String>();
+            for (int i = 0; i < headerCount; i++) {
+                headers.put(in.readUTF(), in.readUTF());
+            }
+            MRAIDLog.d(TAG, "hit " + url);
+            stats.hitCount.incrementAndGet();
+            stats.bytesSaved.addAndGet(entry.size);
+            return new Response(mimeType, encoding.length() > 0 ? encoding : null, headers, in, new ArrayList<String>());
+        } catch (IOException e) {
+            MRAIDLog.w(TAG, "could not read " + url + " " + e.getLocalizedMessage());
+            closeQuietly(in);
+            synchronized (this) {
+                remove(key);
+            }
+            return null;
+        }
+    }
+
+    private Response download(String key, String url, Map<String, String> requestHeaders) {
+        long start = SystemClock.elapsedRealtime();
+        HttpURLConnection conn = null;
+        InputStream is = null;
+        try {
+            conn = (HttpURLConnection) (new URL(url)).openConnection();
+            conn.setConnectTimeout(MRAIDContentFetcher.CONNECT_TIMEOUT_MILLIS);
+            conn.setReadTimeout(MRAIDContentFetcher.READ_TIMEOUT_MILLIS);
+            // the WebView has to see redirects to resolve relative URLs against the right location
+            conn.setInstanceFollowRedirects(false);
+            conn.setUseCaches(false);
+            for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+                conn.setRequestProperty(header.getKey(), header.getValue());
+            }
+            if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                // let the WebView deal with errors and redirects
+                closeQuietly(conn.getErrorStream());
+                markUncacheable(key);
+                return null;
+            }
+            String contentType = conn.getContentType();
+            String mimeType = mimeTypeFromContentType(contentType);
+            String encoding = encodingFromContentType(contentType);
+            if (conn.getContentLength() > MRAIDContentFetcher.MAX_CONTENT_BYTES) {
+                // too big to hold in memory; the WebView can stream it
+                conn.disconnect();
+                markUncacheable(key);
+                return null;
+            }
+            List<String> cookies = new ArrayList<String>();
+            Map<String, String> headers = responseHeaders(conn.getHeaderFields(), cookies);
+            is = conn.getInputStream();
+            byte[] data = MRAIDContentFetcher.readFully(is, conn.getContentLength());
+            MRAIDLog.d(TAG, "downloaded " + url + " " + data.length + " bytes in " + (SystemClock.elapsedRealtime() - start) + "ms");
+
+            long maxAge = maxAgeMillis(conn.getHeaderField("Cache-Control"));
+            if (maxAge > 0 && isCacheableContentType(mimeType) && isCacheableVary(conn.getHeaderField("Vary"))) {
+                put(key, url, mimeType, encoding, headers, System.currentTimeMillis() + maxAge, data);
+            } else {
+                markUncacheable(key);
+            }
+            return new Response(mimeType, encoding, headers, new ByteArrayInputStream(data), cookies);
+        } catch (IOException e) {
+            MRAIDLog.w(TAG, "download failed " + url + " " + e.getLocalizedMessage());
+            return null;
+        } finally {
+            closeQuietly(is);
+        }
+    }
+
+    private synchronized void markUncacheable(String key) {
+        uncacheable.put(key, Boolean.TRUE);
+    }
+
+    private void put(String key, String url, String mimeType, String encoding, Map<String, String> headers,
+            long expiresAt, byte[] data) {
+        synchronized (this) {
+            index();
+            if (data.length > maxBytes / 8) {
+                // don't let one resource push out everything else
+                return;
+            }
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+        File file = new File(directory, key);
+        File tmp = new File(directory, key + "." + Thread.currentThread().getId() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new FileOutputStream(tmp));
+            out.writeInt(VERSION);
+            out.writeUTF(url);
+            out.writeLong(expiresAt);
+            out.writeInt(data.length);
+            out.writeUTF(mimeType);
+            out.writeUTF(encoding != null ? encoding : "");
+            out.writeInt(headers.size());
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+            out.write(data);
+            out.close();
+            out = null;
+            synchronized (this) {
+                remove(key);
+                if (!tmp.renameTo(file)) {
+                    tmp.delete();
+                    return;
+                }
+                entries.put(key, new Entry(file, data.length, expiresAt));
+                size += data.length;
+                trim();
+            }
+        } catch (IOException e) {
+            MRAIDLog.w(TAG, "could not store " + url + " " + e.getLocalizedMessage());
+            tmp.delete();
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    // do nothing
+                }
+            }
+        }
+    }
+
+    // Must hold the lock.
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            size -= entry.size;
+            entry.file.delete();
+        }
+    }
+
+    // Must hold the lock.
+    private void trim() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (size > maxBytes && it.hasNext()) {
+            Entry entry = it.next().getValue();
+            it.remove();
+            size -= entry.size;
+            entry.file.delete();
+        }
+    }
+
+    // Rebuilds the index from the files left by previous runs, oldest first. Must hold the lock.
+    private void index() {
+        if (isIndexed) {
+            return;
+        }
+        isIndexed = true;
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                long l = lhs.lastModified();
+                long r = rhs.lastModified();
+                return l < r ? -1 : (l == r ? 0 : 1);
+            }
+        });
+        for (File file : files) {
+            if (file.getName().endsWith(".tmp")) {
+                // left over from a write that never finished
+                file.delete();
+                continue;
+            }
+            DataInputStream in = null;
+            try {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1024));
+                if (in.readInt() != VERSION) {
+                    in.close();
+                    file.delete();
+                    continue;
+                }
+                in.readUTF();
+                long expiresAt = in.readLong();
+                int dataSize = in.readInt();
+                entries.put(file.getName(), new Entry(file, dataSize, expiresAt));
+                size += dataSize;
+            } catch (IOException e) {
+                file.delete();
+            } finally {
+                closeQuietly(in);
+            }
+        }
+        trim();
+        MRAIDLog.d(TAG, "indexed " + entries.size() + " entries, " + size + " bytes");
+    }
+
+    /**************************************************************************
+     * Helpers
+     **************************************************************************/
+
+    private static String keyForUrl(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            byte[] hash = digest.digest(url.getBytes("UTF-8"));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(url.hashCode());
+        } catch (IOException e) {
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+
+    // Returns the max-age in milliseconds, or 0 if the response must not be stored. This is a
+    // private cache, so s-maxage (which only applies to shared caches) is ignored.
+    static long maxAgeMillis(String cacheControl) {
+        if (cacheControl == null) {
+            return 0;
+        }
+        long maxAge = 0;
+        for (String directive : cacheControl.toLowerCase(Locale.US).split(",")) {
+            directive = directive.trim();
+            if (directive.equals("no-store") || directive.equals("no-cache") || directive.equals("private")) {
+                return 0;
+            }
+            if (directive.startsWith("max-age=")) {
+                try {
+                    maxAge = Long.parseLong(directive.substring(directive.indexOf('=') + 1).trim()) * 1000;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return maxAge;
+    }
+
+    // Whether a response with this Vary header can be stored. Requests are only told apart
+    // by URL, and HttpURLConnection takes care of Accept-Encoding.
+    static boolean isCacheableVary(String vary) {
+        if (vary == null) {
+            return true;
+        }
+        for (String field : vary.split(",")) {
+            field = field.trim();
+            if (field.length() > 0 && !field.equalsIgnoreCase("Accept-Encoding")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The headers to pass on to the WebView, with the values of repeated headers joined.
+    // Set-Cookie values are added to cookies instead.
+    static Map<String, String> responseHeaders(Map<String, List<String>> fields, List<String> cookies) {
+        Map<String, String> headers = new HashMap<String, String>();
+        for (Map.Entry<String, List<String>> field : fields.entrySet()) {
+            String name = field.getKey();
+            // the status line has no name
+            if (name == null) {
+                continue;
+            }
+            String lowerName = name.toLowerCase(Locale.US);
+            if (lowerName.equals("set-cookie")) {
+                cookies.addAll(field.getValue());
+                continue;
+            }
+            // Android's HttpURLConnection adds some of its own
+            if (lowerName.startsWith("x-android-") || Arrays.asList(DROPPED_HEADERS).contains(lowerName)) {
+                continue;
+            }
+            StringBuilder value = new StringBuilder();
+            for (String v : field.getValue()) {
+                if (value.length() > 0) {
+                    value.append(", ");
+                }
+                value.append(v);
+            }
+            headers.put(name, value.toString());
+        }
+        return headers;
+    }
+
+    private static boolean isCacheableContentType(String mimeType) {
+        for (String type : CACHEABLE_CONTENT_TYPES) {
+            if (mimeType.startsWith(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String mimeTypeFromContentType(String contentType) {
+        if (contentType == null) {
+            return "application/octet-stream";
+        }
+        int semicolon = contentType.indexOf(';');
+        return (semicolon == -1 ? contentType : contentType.substring(0, semicolon)).trim().toLowerCase(Locale.US);
+    }
+
+    private static String encodingFromContentType(String contentType) {
+        if (contentType == null || contentType.toLowerCase(Locale.US).indexOf("charset=") == -1) {
+            return null;
+        }
+        return MRAIDContentFetcher.charsetFromContentType(contentType).name();
+    }
+
+    private static void closeQuietly(InputStream is) {
+        if (is != null) {
+            try {
+                is.close();
+            } catch (IOException e) {
+                // do nothing
+            }
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.text.TextUtils;
+import android.view.Choreographer;
+import android.webkit.WebView;
+
+/**
+ * Collects the state MRAIDView pushes to mraid.js (sizes, positions, supported
+ * features, placement type) together with the events it fires, and sends them to
+ * the WebView at most once per frame as a single script.
+ * <p/>
+ * Only the state that differs from what was last pushed to the bound WebView is
+ * sent. State and events keep the order they were set and fired in, as if they
+ * had been sent one by one: state set before an event comes before it in the
+ * script, and state set after it comes after. Only the changes between two events
+ * are coalesced. Size changes that follow each other quickly (during a resize or a
+ * rotation) are held back until they settle, so the creative does not get a storm
+ * of sizeChange events.
+ * <p/>
+ * All methods must be called on the main thread.
+ */
+public class MRAIDStateBuffer {
+
+    private final static String TAG = "MRAIDStateBuffer";
+
+    // minimum time between two pushed size changes
+    public final static long SIZE_CHANGE_DEBOUNCE_MILLIS = 100;
+
+    // supported features, see setSupports
+    public final static int SUPPORTS_CALENDAR = 1;
+    public final static int SUPPORTS_INLINE_VIDEO = 1 << 1;
+    public final static int SUPPORTS_SMS = 1 << 2;
+    public final static int SUPPORTS_STORE_PICTURE = 1 << 3;
+    public final static int SUPPORTS_TEL = 1 << 4;
+
+    // in the same order as the SUPPORTS_ bits
+    private final static String[] SUPPORTED_FEATURE_NAMES = {
+            "CALENDAR",
+            "INLINEVIDEO",
+            "SMS",
+            "STOREPICTURE",
+            "TEL",
+    };
+
+    // groups of state
+    private final static int PLACEMENT_TYPE = 1;
+    private final static int SUPPORTS = 1 << 1;
+    private final static int SCREEN_SIZE = 1 << 2;
+    private final static int MAX_SIZE = 1 << 3;
+    private final static int DEFAULT_POSITION = 1 << 4;
+    private final static int CURRENT_POSITION = 1 << 5;
+
+    private static final class State {
+        // the groups that hold a value
+        int groups;
+
+        String placementType;
+        int supports;
+        int screenWidth, screenHeight;
+        int maxWidth, maxHeight;
+        int defaultX, defaultY, defaultWidth, defaultHeight;
+        int currentX, currentY, currentWidth, currentHeight;
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isScheduled = false;
+            isDelayed = false;
+            flush();
+        }
+    };
+    // used instead of a Choreographer callback before API 16
+    private final Runnable frameRunnable = new Runnable() {
+        @Override
+        public void run() {
+            onFrame();
+        }
+    };
+    private FrameCallback frameCallback;
+
+    private WebView webView;
+
+    // what mraid.js in the bound WebView last received
+    private State pushed = new State();
+    // what it will receive on the next flush, after the queue
+    private State pending = new State();
+    // state and events up to the last event, in order
+    private final StringBuilder queue = new StringBuilder();
+
+    private boolean isEnabled = true;
+    private boolean isScheduled;
+    private boolean isDelayed;
+    private long lastSizeChangeMillis;
+
+    /**
+     * Directs subsequent state and events to the given WebView. If it is not the
+     * WebView the buffer is currently bound to, anything pending is flushed to the
+     * old one first, and the new one is assumed to know nothing yet.
+     */
+    public void bind(WebView webView) {
+        if (this.webView == webView) {
+            return;
+        }
+        flush();
+        this.webView = webView;
+        pushed = new State();
+        lastSizeChangeMillis = 0;
+    }
+
+    /**
+     * A disabled buffer ignores all state and events, e.g. for a creative that doesn't
+     * use MRAID. Anything pending is dropped.
+     */
+    public void setEnabled(boolean isEnabled) {
+        if (!isEnabled && this.isEnabled) {
+            if (isScheduled) {
+                cancelScheduled();
+            }
+            clearPending();
+        }
+        this.isEnabled = isEnabled;
+    }
+
+    public void setPlacementType(String placementType) {
+        pending.placementType = placementType;
+        markDirty(PLACEMENT_TYPE);
+    }
+
+    public void setSupports(int supports) {
+        pending.supports = supports;
+        markDirty(SUPPORTS);
+    }
+
+    public void setScreenSize(int width, int height) {
+        pending.screenWidth = width;
+        pending.screenHeight = height;
+        markDirty(SCREEN_SIZE);
+    }
+
+    public void setMaxSize(int width, int height) {
+        pending.maxWidth = width;
+        pending.maxHeight = height;
+        markDirty(MAX_SIZE);
+    }
+
+    public void setDefaultPosition(int x, int y, int width, int height) {
+        pending.defaultX = x;
+        pending.defaultY = y;
+        pending.defaultWidth = width;
+        pending.defaultHeight = height;
+        markDirty(DEFAULT_POSITION);
+    }
+
+    public void setCurrentPosition(int x, int y, int width, int height) {
+        pending.currentX = x;
+        pending.currentY = y;
+        pending.currentWidth = width;
+        pending.currentHeight = height;
+        markDirty(CURRENT_POSITION);
+    }
+
+    // Queues a script (normally an mraid.fire...Event call) to run after the state set so far has been pushed.
+    public void enqueue(String js) {
+        if (!isEnabled) {
+            return;
+        }
+        appendChangedState(queue);
+        pending.groups = 0;
+        queue.append(js);
+        if (isDelayed) {
+            // don't hold events back for a size change
+            handler.removeCallbacks(flushRunnable);
+            isScheduled = false;
+            isDelayed = false;
+        }
+        schedule();
+    }
+
+    // Sends everything pending right away.
+    public void flush() {
+        if (isScheduled) {
+            cancelScheduled();
+        }
+        if (webView == null) {
+            clearPending();
+            return;
+        }
+
+        StringBuilder script = new StringBuilder(queue.length() + 256);
+        script.append(queue);
+        appendChangedState(script);
+        clearPending();
+
+        if (script.length() > 0) {
+            evaluate(webView, script.toString());
+        }
+    }
+
+    // Drops everything pending and unbinds the buffer.
+    public void cancel() {
+        if (isScheduled) {
+            cancelScheduled();
+        }
+        clearPending();
+        webView = null;
+        pushed = new State();
+    }
+
+    @SuppressLint("NewApi")
+    public static void evaluate(WebView webView, String js) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            MRAIDLog.d(TAG, "evaluating js: " + js);
+            webView.evaluateJavascript(js, null);
+        } else {
+            MRAIDLog.d(TAG, "loading url: " + js);
+            webView.loadUrl("javascript:" + js);
+        }
+    }
+
+    /**************************************************************************
+     * Scheduling
+     **************************************************************************/
+
+    private void markDirty(int group) {
+        if (!isEnabled) {
+            return;
+        }
+        pending.groups |= group;
+        schedule();
+    }
+
+    private void schedule() {
+        if (isScheduled) {
+            return;
+        }
+        isScheduled = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            if (frameCallback == null) {
+                frameCallback = new FrameCallback();
+            }
+            frameCallback.post();
+        } else {
+            handler.post(frameRunnable);
+        }
+    }
+
+    private void cancelScheduled() {
+        isScheduled = false;
+        isDelayed = false;
+        handler.removeCallbacks(flushRunnable);
+        handler.removeCallbacks(frameRunnable);
+        if (frameCallback != null) {
+            frameCallback.remove();
+        }
+    }
+
+    private void onFrame() {
+        isScheduled = false;
+        if (queue.length() == 0 && pending.groups == CURRENT_POSITION && isSizeChange()) {
+            long wait = lastSizeChangeMillis + SIZE_CHANGE_DEBOUNCE_MILLIS - SystemClock.uptimeMillis();
+            if (wait > 0) {
+                MRAIDLog.d(TAG, "holding size change for " + wait + "ms");
+                isScheduled = true;
+                isDelayed = true;
+                handler.postDelayed(flushRunnable, wait);
+                return;
+            }
+        }
+        flush();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private class FrameCallback implements Choreographer.FrameCallback {
+
+        void post() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        void remove() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            onFrame();
+        }
+    }
+
+    /**************************************************************************
+     * Deltas
+     **************************************************************************/
+
+    private boolean isSizeChange() {
+        return (pushed.groups & CURRENT_POSITION) != 0
+                && (pending.currentWidth != pushed.currentWidth || pending.currentHeight != pushed.currentHeight);
+    }
+
+    private boolean isChanged(int group, boolean isEqual) {
+        return (pending.groups & group) != 0 && ((pushed.groups & group) == 0 || !isEqual);
+    }
+
+    private void appendChangedState(StringBuilder script) {
+        if (isChanged(PLACEMENT_TYPE, TextUtils.equals(pending.placementType, pushed.placementType))) {
+            script.append("mraid.setPlacementType('").append(pending.placementType).append("');");
+            pushed.placementType = pending.placementType;
+        }
+        if (isChanged(SUPPORTS, pending.supports == pushed.supports)) {
+            int changed = (pushed.groups & SUPPORTS) == 0 ? ~0 : pending.supports ^ pushed.supports;
+            for (int i = 0; i < SUPPORTED_FEATURE_NAMES.length; i++) {
+                if ((changed & (1 << i)) != 0) {
+                    script.append("mraid.setSupports(mraid.SUPPORTED_FEATURES.").append(SUPPORTED_FEATURE_NAMES[i])
+                            .append(',').append((pending.supports & (1 << i)) != 0).append(");");
+                }
+            }
+            pushed.supports = pending.supports;
+        }
+        if (isChanged(SCREEN_SIZE, pending.screenWidth == pushed.screenWidth
+                && pending.screenHeight == pushed.screenHeight)) {
+            script.append("mraid.setScreenSize(").append(pending.screenWidth).append(',')
+                    .append(pending.screenHeight).append(");");
+            pushed.screenWidth = pending.screenWidth;
+            pushed.screenHeight = pending.screenHeight;
+        }
+        if (isChanged(MAX_SIZE, pending.maxWidth == pushed.maxWidth && pending.maxHeight == pushed.maxHeight)) {
+            script.append("mraid.setMaxSize(").append(pending.maxWidth).append(',')
+                    .append(pending.maxHeight).append(");");
+            pushed.maxWidth = pending.maxWidth;
+            pushed.maxHeight = pending.maxHeight;
+        }
+        if (isChanged(DEFAULT_POSITION, pending.defaultX == pushed.defaultX && pending.defaultY == pushed.defaultY
+                && pending.defaultWidth == pushed.defaultWidth && pending.defaultHeight == pushed.defaultHeight)) {
+            script.append("mraid.setDefaultPosition(").append(pending.defaultX).append(',')
+                    .append(pending.defaultY).append(',').append(pending.defaultWidth).append(',')
+                    .append(pending.defaultHeight).append(");");
+            pushed.defaultX = pending.defaultX;
+            pushed.defaultY = pending.defaultY;
+            pushed.defaultWidth = pending.defaultWidth;
+            pushed.defaultHeight = pending.defaultHeight;
+        }
+        if (isChanged(CURRENT_POSITION, pending.currentX == pushed.currentX && pending.currentY == pushed.currentY
+                && pending.currentWidth == pushed.currentWidth && pending.currentHeight == pushed.currentHeight)) {
+            if (isSizeChange()) {
+                lastSizeChangeMillis = SystemClock.uptimeMillis();
+            }
+            script.append("mraid.setCurrentPosition(").append(pending.currentX).append(',')
+                    .append(pending.currentY).append(',').append(pending.currentWidth).append(',')
+                    .append(pending.currentHeight).append(");");
+            pushed.currentX = pending.currentX;
+            pushed.currentY = pending.currentY;
+            pushed.currentWidth = pending.currentWidth;
+            pushed.currentHeight = pending.currentHeight;
+        }
+        pushed.groups |= pending.groups;
+    }
+
+    private void clearPending() {
+        pending.groups = 0;
+        queue.setLength(0);
+    }
+}
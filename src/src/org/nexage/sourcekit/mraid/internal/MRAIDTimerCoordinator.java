@@ -0,0 +1,87 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import android.webkit.WebView;
+
+/**
+ * Decides when to pause and resume the JavaScript timers of all WebViews.
+ * <p/>
+ * WebView.pauseTimers() and resumeTimers() act on every WebView in the process,
+ * so a single ad must never call them directly: closing one banner would freeze
+ * all the others. Instead, each MRAIDView reports when it is created, when it
+ * becomes active (its window is visible) or inactive, and when it is destroyed.
+ * Timers are paused only when no MRAIDView is active any more, and resumed as
+ * soon as one is.
+ * <p/>
+ * All methods must be called on the main thread.
+ */
+public class MRAIDTimerCoordinator {
+
+    private final static String TAG = "MRAIDTimerCoordinator";
+
+    private static MRAIDTimerCoordinator instance;
+
+    private int liveViewCount;
+    private int activeViewCount;
+    private boolean isTimersPaused;
+
+    public static MRAIDTimerCoordinator getInstance() {
+        if (instance == null) {
+            instance = new MRAIDTimerCoordinator();
+        }
+        return instance;
+    }
+
+    private MRAIDTimerCoordinator() {
+    }
+
+    public void onViewCreated() {
+        liveViewCount++;
+        MRAIDLog.d(TAG, "onViewCreated " + this);
+    }
+
+    // wasActive is whether the view was active (and not reported inactive since) when it was destroyed.
+    public void onViewDestroyed(WebView wv, boolean wasActive) {
+        liveViewCount--;
+        MRAIDLog.d(TAG, "onViewDestroyed " + this);
+        if (wasActive) {
+            onViewInactive(wv);
+        }
+    }
+
+    public void onViewActive(WebView wv) {
+        activeViewCount++;
+        if (isTimersPaused) {
+            MRAIDLog.d(TAG, "resuming timers");
+            wv.resumeTimers();
+            isTimersPaused = false;
+        }
+    }
+
+    public void onViewInactive(WebView wv) {
+        activeViewCount--;
+        if (activeViewCount == 0 && !isTimersPaused) {
+            MRAIDLog.d(TAG, "pausing timers");
+            wv.pauseTimers();
+            isTimersPaused = true;
+        }
+    }
+
+    // the number of MRAIDViews that have been created but not destroyed yet
+    public int getLiveViewCount() {
+        return liveViewCount;
+    }
+
+    public int getActiveViewCount() {
+        return activeViewCount;
+    }
+
+    public boolean isTimersPaused() {
+        return isTimersPaused;
+    }
+
+    @Override
+    public String toString() {
+        return "MRAIDTimerCoordinator live " + liveViewCount + " active " + activeViewCount
+                + " timers " + (isTimersPaused ? "paused" : "running");
+    }
+}
@@ -0,0 +1,159 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.pm.ApplicationInfo;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.view.MotionEvent;
+import android.view.View;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+
+/**
+ * The WebView used by MRAIDView. It is created once with all of its settings applied
+ * and can then be leased to any number of MRAIDViews over its lifetime (see
+ * MRAIDWebViewPool). The view it is currently leased to receives its layout and
+ * visibility callbacks through the Host interface.
+ */
+@SuppressLint("ViewConstructor")
+public class MRAIDWebView extends WebView {
+
+    private static final String TAG = "MRAIDView-WebView";
+
+    public interface Host {
+
+        public void onLayoutWebView(WebView wv, boolean changed, int left, int top, int right, int bottom);
+
+        public void onConfigurationChangedWebView(WebView wv, Configuration newConfig);
+
+        public void onVisibilityChangedWebView(WebView wv, View changedView, int visibility);
+
+        public void onWindowVisibilityChangedWebView(WebView wv, int visibility);
+
+    }
+
+    private Host host;
+
+    @SuppressLint("SetJavaScriptEnabled")
+    public MRAIDWebView(MutableContextWrapper context) {
+        super(context);
+
+        // changes behavior of view when bigger than window or something?
+        setScrollContainer(false);
+
+        // disable the scroll bars (still allows dragging scroll but hides bars)
+        setVerticalScrollBarEnabled(false);
+        setHorizontalScrollBarEnabled(false);
+
+        // make sure those scroll bars are gone
+        setScrollBarStyle(WebView.SCROLLBARS_OUTSIDE_OVERLAY);
+
+        // i think we want to be able to focus but i dont know?
+        setFocusableInTouchMode(true);
+
+        // manually delegate view focus?
+        setOnTouchListener(new OnTouchListener() {
+            @SuppressLint("ClickableViewAccessibility")
+            @Override
+            public boolean onTouch(View v, MotionEvent event) {
+                switch (event.getAction()) {
+                    case MotionEvent.ACTION_DOWN:
+                    case MotionEvent.ACTION_UP:
+                        // isTouched = true;
+                        if (!v.hasFocus()) {
+                            v.requestFocus();
+                        }
+                        break;
+                }
+                return false;
+            }
+        });
+
+        // definitely want javascript on
+        getSettings().setJavaScriptEnabled(true);
+
+        // store things somehow ?
+        getSettings().setDomStorageEnabled(true);
+
+        // not sure what this does??
+        getSettings().setAllowContentAccess(true);
+
+        // we don't want to block image requests
+        getSettings().setBlockNetworkImage(false);
+
+        // don't use the zoom control gestures
+        getSettings().setBuiltInZoomControls(false);
+
+        // use the wide viewport i think, maybe we don't want this?
+        getSettings().setUseWideViewPort(true);
+
+        // load all the images without asking
+        getSettings().setLoadsImagesAutomatically(true);
+
+        // our ads often have insecure images and stuff, newer android prevents loading these by default
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            getSettings().setMixedContentMode(WebSettings.MIXED_CONTENT_ALWAYS_ALLOW);
+        }
+
+        // no zooming!
+        getSettings().setSupportZoom(false);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+            getSettings().setMediaPlaybackRequiresUserGesture(false);
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            if (0 != (context.getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE)) {
+                WebView.setWebContentsDebuggingEnabled(true);
+            }
+        }
+    }
+
+    public Host getHost() {
+        return host;
+    }
+
+    public void setHost(Host host) {
+        this.host = host;
+    }
+
+    // Points the WebView at the Context (normally an Activity) it is being shown in.
+    public void setBaseContext(Context context) {
+        ((MutableContextWrapper) getContext()).setBaseContext(context);
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        if (host != null) {
+            host.onLayoutWebView(this, changed, left, top, right, bottom);
+        }
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        MRAIDLog.d(TAG, "onConfigurationChanged " + (newConfig.orientation == Configuration.ORIENTATION_PORTRAIT ? "portrait" : "landscape"));
+        if (host != null) {
+            host.onConfigurationChangedWebView(this, newConfig);
+        }
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        if (host != null) {
+            host.onVisibilityChangedWebView(this, changedView, visibility);
+        }
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        if (host != null) {
+            host.onWindowVisibilityChangedWebView(this, visibility);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.res.Configuration;
+import android.os.Build;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.ViewGroup;
+
+import java.util.ArrayDeque;
+
+/**
+ * A process-wide pool of pre-configured MRAIDWebViews.
+ * <p/>
+ * Creating and configuring a WebView on the main thread is expensive, so the pool
+ * creates its WebViews ahead of time while the main thread is idle and hands them
+ * out from obtain(). Pooled WebViews are built on a MutableContextWrapper around the
+ * application context, so they do not keep an Activity alive while they sit in the pool.
+ * <p/>
+ * All methods must be called on the main thread.
+ */
+public class MRAIDWebViewPool implements ComponentCallbacks2 {
+
+    private final static String TAG = "MRAIDWebViewPool";
+
+    public final static int DEFAULT_MAX_SIZE = 2;
+
+    private static MRAIDWebViewPool instance;
+
+    private final ArrayDeque<MRAIDWebView> pool = new ArrayDeque<MRAIDWebView>();
+
+    private Context applicationContext;
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private boolean isPrewarmScheduled;
+
+    private int hitCount;
+    private int missCount;
+
+    public static MRAIDWebViewPool getInstance() {
+        if (instance == null) {
+            instance = new MRAIDWebViewPool();
+        }
+        return instance;
+    }
+
+    private MRAIDWebViewPool() {
+    }
+
+    /**
+     * Leases a WebView for the given context, taking it from the pool when one is
+     * available and creating it otherwise. The pool is refilled on the next idle pass.
+     */
+    public MRAIDWebView obtain(Context context) {
+        initialize(context);
+        MRAIDWebView wv = pool.poll();
+        if (wv != null) {
+            hitCount++;
+            MRAIDLog.d(TAG, "obtain hit (" + pool.size() + " left)");
+            // Drops the previous creative's entries. Done here rather than in recycle, where
+            // clearHistory would run before the about:blank navigation has committed and the
+            // creative's page would stay in the back list.
+            wv.clearHistory();
+        } else {
+            missCount++;
+            MRAIDLog.d(TAG, "obtain miss");
+            wv = createWebView();
+        }
+        wv.setBaseContext(context);
+        wv.onResume();
+        prewarm(context);
+        return wv;
+    }
+
+    /**
+     * Scrubs a WebView that is no longer used by its MRAIDView and returns it to the
+     * pool, or destroys it if the pool is already full. Its history is cleared when it
+     * is leased again.
+     */
+    @TargetApi(Build.VERSION_CODES.M)
+    public void recycle(MRAIDWebView wv) {
+        if (wv == null || pool.contains(wv)) {
+            return;
+        }
+        if (wv.getParent() != null) {
+            ((ViewGroup) wv.getParent()).removeView(wv);
+        }
+        wv.setHost(null);
+        wv.setWebChromeClient(null);
+        wv.setWebViewClient(null);
+        wv.removeJavascriptInterface(MRAIDJavascriptBridge.NAME);
+        wv.stopLoading();
+        wv.loadUrl("about:blank");
+        wv.onPause();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            // only preloaded interstitials raster offscreen
+            wv.getSettings().setOffscreenPreRaster(false);
+        }
+
+        if (applicationContext != null && pool.size() < maxSize) {
+            wv.setBaseContext(applicationContext);
+            pool.add(wv);
+            MRAIDLog.d(TAG, "recycle (" + pool.size() + " pooled)");
+        } else {
+            MRAIDLog.d(TAG, "recycle pool full, destroying");
+            wv.destroy();
+        }
+    }
+
+    /**
+     * Schedules creation of WebViews on the main thread's idle handler until the pool
+     * holds maxSize instances.
+     */
+    public void prewarm(Context context) {
+        initialize(context);
+        if (isPrewarmScheduled || pool.size() >= maxSize) {
+            return;
+        }
+        isPrewarmScheduled = true;
+        Looper.myQueue().addIdleHandler(new MessageQueue.IdleHandler() {
+            @Override
+            public boolean queueIdle() {
+                if (pool.size() >= maxSize) {
+                    isPrewarmScheduled = false;
+                    return false;
+                }
+                // Create a single WebView per idle pass so we never block the main thread for long.
+                pool.add(createWebView());
+                MRAIDLog.d(TAG, "prewarm (" + pool.size() + " pooled)");
+                isPrewarmScheduled = pool.size() < maxSize;
+                return isPrewarmScheduled;
+            }
+        });
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        while (pool.size() > this.maxSize) {
+            pool.poll().destroy();
+        }
+    }
+
+    public int getSize() {
+        return pool.size();
+    }
+
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    public int getMissCount() {
+        return missCount;
+    }
+
+    // Destroys every pooled WebView. WebViews that are currently leased are not affected.
+    public void clear() {
+        MRAIDLog.d(TAG, "clear " + pool.size());
+        MRAIDWebView wv;
+        while ((wv = pool.poll()) != null) {
+            wv.destroy();
+        }
+    }
+
+    private void initialize(Context context) {
+        if (applicationContext == null) {
+            applicationContext = context.getApplicationContext();
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.ICE_CREAM_SANDWICH) {
+                applicationContext.registerComponentCallbacks(this);
+            }
+        }
+    }
+
+    private MRAIDWebView createWebView() {
+        return new MRAIDWebView(new MutableContextWrapper(applicationContext));
+    }
+
+    /**************************************************************************
+     * ComponentCallbacks2
+     **************************************************************************/
+
+    @Override
+    public void onTrimMemory(int level) {
+        MRAIDLog.d(TAG, "onTrimMemory " + level);
+        if (level >= TRIM_MEMORY_RUNNING_LOW) {
+            clear();
+        }
+    }
+
+    @Override
+    public void onLowMemory() {
+        clear();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // nothing to do
+    }
+}
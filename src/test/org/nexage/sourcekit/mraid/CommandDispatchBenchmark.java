@@ -0,0 +1,325 @@
+package org.nexage.sourcekit.mraid;
+
+import org.nexage.sourcekit.mraid.internal.MRAIDCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-command cost of dispatching a parsed MRAID command to its handler, before and
+ * after the static handler table in MRAIDView.
+ * <p/>
+ * reflection is the old MRAIDView.executeCommand, line for line: three String[]
+ * lookups with Arrays.asList().contains(), then getDeclaredMethod() with a fallback
+ * to the superclass and Method.invoke(). The old MRAID methods took Strings and
+ * Maps, so it runs against Ad and Banner, which stand in for the old MRAIDView and
+ * MRAIDBanner: the methods only record their arguments, and Banner overrides some
+ * of them like MRAIDBanner does.
+ * <p/>
+ * table calls MRAIDView.executeCommand itself, with its COMMAND_HANDLERS, on a
+ * RecordingBanner: an MRAIDBanner whose MRAID methods record their arguments the
+ * same way.
+ * <p/>
+ * Each invocation dispatches the whole command mix once, so divide by the number
+ * of commands (10) for the cost of a single command. Run with gradle benchmark, or
+ * run main.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandDispatchBenchmark {
+
+    /**************************************************************************
+     * Before: stand-ins for the old MRAIDView and MRAIDBanner
+     **************************************************************************/
+
+    static class Ad {
+        Blackhole blackhole;
+
+        void close() {
+            blackhole.consume(1);
+        }
+
+        void resize() {
+            blackhole.consume(2);
+        }
+
+        void createCalendarEvent(String eventJSON) {
+            blackhole.consume(eventJSON);
+        }
+
+        void expand(String url) {
+            blackhole.consume(url);
+        }
+
+        void open(String url) {
+            blackhole.consume(url);
+        }
+
+        void playVideo(String url) {
+            blackhole.consume(url);
+        }
+
+        void storePicture(String url) {
+            blackhole.consume(url);
+        }
+
+        void useCustomClose(String useCustomCloseString) {
+            blackhole.consume(Boolean.parseBoolean(useCustomCloseString));
+        }
+
+        void setOrientationProperties(Map<String, String> properties) {
+            blackhole.consume(Boolean.parseBoolean(properties.get("allowOrientationChange")));
+            blackhole.consume(properties.get("forceOrientation"));
+        }
+
+        void setResizeProperties(Map<String, String> properties) {
+            blackhole.consume(Integer.parseInt(properties.get("width")));
+            blackhole.consume(Integer.parseInt(properties.get("height")));
+        }
+    }
+
+    // overrides what MRAIDBanner overrides, so reflection has to go through its fallback for the rest
+    static class Banner extends Ad {
+        @Override
+        void close() {
+            blackhole.consume(3);
+        }
+
+        @Override
+        void expand(String url) {
+            blackhole.consume(url);
+        }
+    }
+
+    private static void executeReflectively(Ad ad, Map<String, String> commandMap) {
+        String command = commandMap.get("command");
+
+        final String[] commandsWithNoParam = {
+                "close",
+                "resize",
+        };
+
+        final String[] commandsWithString = {
+                "createCalendarEvent",
+                "expand",
+                "open",
+                "playVideo",
+                "storePicture",
+                "useCustomClose",
+        };
+
+        final String[] commandsWithMap = {
+                "setOrientationProperties",
+                "setResizeProperties",
+        };
+
+        try {
+            if (Arrays.asList(commandsWithNoParam).contains(command)) {
+                try {
+                    ad.getClass().getDeclaredMethod(command).invoke(ad);
+                } catch (NoSuchMethodException e) {
+                    ad.getClass().getSuperclass().getDeclaredMethod(command).invoke(ad);
+                }
+            } else if (Arrays.asList(commandsWithString).contains(command)) {
+                String key;
+                switch (command) {
+                    case "createCalendarEvent":
+                        key = "eventJSON";
+                        break;
+                    case "useCustomClose":
+                        key = "useCustomClose";
+                        break;
+                    default:
+                        key = "url";
+                        break;
+                }
+                String val = commandMap.get(key);
+                try {
+                    ad.getClass().getDeclaredMethod(command, String.class).invoke(ad, val);
+                } catch (NoSuchMethodException e) {
+                    ad.getClass().getSuperclass().getDeclaredMethod(command, String.class).invoke(ad, val);
+                }
+            } else if (Arrays.asList(commandsWithMap).contains(command)) {
+                try {
+                    ad.getClass().getDeclaredMethod(command, Map.class).invoke(ad, commandMap);
+                } catch (NoSuchMethodException e) {
+                    ad.getClass().getSuperclass().getDeclaredMethod(command, Map.class).invoke(ad, commandMap);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**************************************************************************
+     * After: MRAIDView's handler table
+     **************************************************************************/
+
+    // Records the arguments of the MRAID methods the handlers call, like Ad does.
+    static class RecordingBanner extends MRAIDBanner {
+        Blackhole blackhole;
+
+        // never called, see create
+        private RecordingBanner() {
+            super(null, null, null, null);
+        }
+
+        // A view can't be constructed off a device, so the instance is allocated without
+        // running any constructor. Only the overridden methods below are ever called on it.
+        static RecordingBanner create(Blackhole blackhole) throws Exception {
+            Field field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            RecordingBanner banner = (RecordingBanner) unsafe.getClass()
+                    .getMethod("allocateInstance", Class.class).invoke(unsafe, RecordingBanner.class);
+            banner.blackhole = blackhole;
+            return banner;
+        }
+
+        @Override
+        protected void close() {
+            blackhole.consume(3);
+        }
+
+        @Override
+        protected void resize() {
+            blackhole.consume(2);
+        }
+
+        @Override
+        protected void createCalendarEvent(String eventJSON) {
+            blackhole.consume(eventJSON);
+        }
+
+        @Override
+        protected void expand(String url) {
+            blackhole.consume(url);
+        }
+
+        @Override
+        protected void open(String url) {
+            blackhole.consume(url);
+        }
+
+        @Override
+        protected void playVideo(String url) {
+            blackhole.consume(url);
+        }
+
+        @Override
+        protected void storePicture(String url) {
+            blackhole.consume(url);
+        }
+
+        @Override
+        protected void useCustomClose(boolean useCustomClose) {
+            blackhole.consume(useCustomClose);
+        }
+
+        @Override
+        protected void setOrientationProperties(boolean allowOrientationChange, int forceOrientation) {
+            blackhole.consume(allowOrientationChange);
+            blackhole.consume(forceOrientation);
+        }
+
+        @Override
+        protected void setResizeProperties(int width, int height, int offsetX, int offsetY,
+                                           int customClosePosition, boolean allowOffscreen) {
+            blackhole.consume(width);
+            blackhole.consume(height);
+        }
+    }
+
+    /**************************************************************************
+     * Benchmarks
+     **************************************************************************/
+
+    private Ad ad;
+    private MRAIDView view;
+    private Map<String, String>[] commandMaps;
+    private MRAIDCommand[] commands;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setUp(Blackhole blackhole) throws Exception {
+        ad = new Banner();
+        ad.blackhole = blackhole;
+        view = RecordingBanner.create(blackhole);
+
+        // the same commands in both forms, as each dispatcher gets them from its parser
+        String[][] mix = {
+                { "command", "close" },
+                { "command", "resize" },
+                { "command", "createCalendarEvent", "eventJSON", "{\"description\":\"Mayan Apocalypse/End of World\",\"start\":\"2013-12-21T00:00-05:00\"}" },
+                { "command", "expand", "url", "http://example.com/part2.html" },
+                { "command", "open", "url", "http://example.com/landing" },
+                { "command", "playVideo", "url", "http://example.com/video.mp4" },
+                { "command", "storePicture", "url", "http://example.com/picture.png" },
+                { "command", "useCustomClose", "useCustomClose", "true" },
+                { "command", "setOrientationProperties", "allowOrientationChange", "true", "forceOrientation", "none" },
+                { "command", "setResizeProperties", "width", "320", "height", "250", "offsetX", "0", "offsetY", "0",
+                        "customClosePosition", "top-right", "allowOffscreen", "true" },
+        };
+        commandMaps = new Map[mix.length];
+        commands = new MRAIDCommand[mix.length];
+        for (int i = 0; i < mix.length; i++) {
+            Map<String, String> commandMap = new HashMap<String, String>();
+            for (int j = 0; j < mix[i].length; j += 2) {
+                commandMap.put(mix[i][j], mix[i][j + 1]);
+            }
+            commandMaps[i] = commandMap;
+
+            MRAIDCommand command = new MRAIDCommand();
+            command.reset();
+            command.type = MRAIDCommand.Type.fromName(mix[i][1]);
+            command.eventJSON = commandMap.get("eventJSON");
+            command.url = commandMap.get("url");
+            command.useCustomClose = Boolean.parseBoolean(commandMap.get("useCustomClose"));
+            if (command.type == MRAIDCommand.Type.SET_RESIZE_PROPERTIES) {
+                command.width = 320;
+                command.height = 250;
+                command.allowOffscreen = true;
+            }
+            commands[i] = command;
+        }
+    }
+
+    @Benchmark
+    public void reflection() {
+        for (Map<String, String> commandMap : commandMaps) {
+            executeReflectively(ad, commandMap);
+        }
+    }
+
+    @Benchmark
+    public void table() {
+        for (MRAIDCommand command : commands) {
+            view.executeCommand(command);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CommandDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,157 @@
+package org.nexage.sourcekit.mraid;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nexage.sourcekit.mraid.internal.MRAIDContentFetcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MRAIDCreativeBundleTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("bundle", ".zip");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    private static byte[] zip(String... namesAndContents) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        for (int i = 0; i < namesAndContents.length; i += 2) {
+            zip.putNextEntry(new ZipEntry(namesAndContents[i]));
+            zip.write(namesAndContents[i + 1].getBytes("UTF-8"));
+            zip.closeEntry();
+        }
+        zip.close();
+        return out.toByteArray();
+    }
+
+    private MRAIDCreativeBundle open(byte[] data) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(data);
+        } finally {
+            out.close();
+        }
+        return MRAIDCreativeBundle.open(file);
+    }
+
+    @Test
+    public void readsEntries() throws IOException {
+        MRAIDCreativeBundle bundle = open(zip("index.html", "<p>main</p>", "part2/page.html", "<p>two</p>"));
+        String base = bundle.getBaseUrl();
+        assertEquals("<p>main</p>", bundle.readString(bundle.getMainUrl()));
+        assertEquals("<p>two</p>", bundle.readString(base + "part2/page.html?x=1#top"));
+        assertNull(bundle.readString(base + "missing.html"));
+    }
+
+    @Test
+    public void decodesPaths() throws IOException {
+        MRAIDCreativeBundle bundle = open(zip("index.html", "", "my page+1.html", "a", "caf\u00e9.html", "b"));
+        String base = bundle.getBaseUrl();
+        assertTrue(bundle.contains(base + "my%20page+1.html"));
+        assertTrue(bundle.contains(base + "caf%C3%A9.html"));
+        assertTrue(bundle.contains(base + "caf\u00e9.html"));
+        assertFalse(bundle.contains(base + "my%2"));
+        assertFalse(bundle.contains(base + "my%zzpage.html"));
+    }
+
+    @Test
+    public void normalizesPaths() throws IOException {
+        MRAIDCreativeBundle bundle = open(zip("index.html", "", "./x.html", "x", "img/a.png", "a"));
+        String base = bundle.getBaseUrl();
+        assertTrue(bundle.contains(base + "x.html"));
+        assertTrue(bundle.contains(base + "./x.html"));
+        assertTrue(bundle.contains(base + "img/../x.html"));
+        assertTrue(bundle.contains(base + "img/./a.png"));
+        assertTrue(bundle.contains(base + "img//a.png"));
+        assertFalse(bundle.contains(base + "../x.html"));
+        assertFalse(bundle.contains(base + "img/../../x.html"));
+    }
+
+    @Test
+    public void skipsEntriesOutsideTheBundle() throws IOException {
+        MRAIDCreativeBundle bundle = open(zip("index.html", "", "../evil.html", "x"));
+        assertEquals(1, bundle.getEntryNames().size());
+    }
+
+    @Test
+    public void corruptArchivesFailWithIOException() throws IOException {
+        byte[] data = zip("index.html", "<p>main</p>");
+        // the end of central directory record is the last 22 bytes; point the directory elsewhere
+        int end = data.length - 22;
+
+        byte[] pastEnd = data.clone();
+        putInt(pastEnd, end + 16, 0x7FFFFFF0);
+        assertOpenFails(pastEnd);
+
+        byte[] negative = data.clone();
+        putInt(negative, end + 16, 0x80000000);
+        assertOpenFails(negative);
+
+        // a name that runs past the end of the file
+        byte[] longName = data.clone();
+        int directory = getInt(data, end + 16);
+        longName[directory + 28] = (byte) 0xFF;
+        longName[directory + 29] = (byte) 0xFF;
+        assertOpenFails(longName);
+
+        // an uncompressed size deflate can't reach from the compressed one
+        byte[] hugeSize = data.clone();
+        putInt(hugeSize, directory + 24, 0x7FFFFFF0);
+        assertOpenFails(hugeSize);
+
+        assertOpenFails(new byte[] { 1, 2, 3 });
+        assertOpenFails(new byte[0]);
+    }
+
+    @Test
+    public void doesNotReadEntriesOverTheLimit() throws IOException {
+        char[] zeros = new char[MRAIDContentFetcher.MAX_CONTENT_BYTES + 1];
+        Arrays.fill(zeros, '0');
+        MRAIDCreativeBundle bundle = open(zip("index.html", "<p>main</p>", "big.html", new String(zeros)));
+        assertNull(bundle.readString(bundle.getBaseUrl() + "big.html"));
+        assertEquals("<p>main</p>", bundle.readString(bundle.getMainUrl()));
+    }
+
+    private void assertOpenFails(byte[] data) {
+        try {
+            open(data);
+            fail("opened a corrupt archive");
+        } catch (IOException expected) {
+        }
+    }
+
+    private static void putInt(byte[] data, int offset, int value) {
+        for (int i = 0; i < 4; i++) {
+            data[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private static int getInt(byte[] data, int offset) {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value |= (data[offset + i] & 0xFF) << (8 * i);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,75 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MRAIDContentFetcherTest {
+
+    // An endless stream that counts what has been read from it.
+    private static class EndlessInputStream extends InputStream {
+        long count;
+
+        @Override
+        public int read() {
+            count++;
+            return 'x';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            count += len;
+            return len;
+        }
+    }
+
+    @Test
+    public void readFully() throws IOException {
+        byte[] data = new byte[20000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        assertArrayEquals(data, MRAIDContentFetcher.readFully(new ByteArrayInputStream(data), -1));
+        assertArrayEquals(data, MRAIDContentFetcher.readFully(new ByteArrayInputStream(data), data.length));
+        // a wrong length either way still reads everything
+        assertArrayEquals(data, MRAIDContentFetcher.readFully(new ByteArrayInputStream(data), 100));
+        assertArrayEquals(data, MRAIDContentFetcher.readFully(new ByteArrayInputStream(data), 30000));
+    }
+
+    @Test
+    public void readFullyRejectsAHugeContentLength() {
+        EndlessInputStream is = new EndlessInputStream();
+        try {
+            MRAIDContentFetcher.readFully(is, Integer.MAX_VALUE);
+            fail();
+        } catch (IOException e) {
+            assertEquals(0, is.count);
+        }
+    }
+
+    @Test
+    public void readFullyStopsAtTheLimit() {
+        EndlessInputStream is = new EndlessInputStream();
+        try {
+            MRAIDContentFetcher.readFully(is, -1);
+            fail();
+        } catch (IOException e) {
+            assertEquals(MRAIDContentFetcher.MAX_CONTENT_BYTES + 1, is.count);
+        }
+    }
+
+    @Test
+    public void charsetFromContentType() {
+        assertEquals(Charset.forName("ISO-8859-1"), MRAIDContentFetcher.charsetFromContentType("text/html; charset=\"iso-8859-1\""));
+        assertEquals(Charset.forName("UTF-8"), MRAIDContentFetcher.charsetFromContentType("text/html"));
+        assertEquals(Charset.forName("UTF-8"), MRAIDContentFetcher.charsetFromContentType("text/html; charset=nonsense"));
+        assertEquals(Charset.forName("UTF-8"), MRAIDContentFetcher.charsetFromContentType(null));
+    }
+}
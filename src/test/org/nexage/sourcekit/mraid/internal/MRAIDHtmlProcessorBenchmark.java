@@ -0,0 +1,184 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Processing the demo creatives, demo/app/assets/*.html, before they are loaded.
+ * <p/>
+ * With input=demo, each invocation processes every demo creative once. With input=large,
+ * it processes one large creative: banner.setOrientationProperties.html with its body
+ * repeated to about 280 KB, the size of a heavy rich media creative with inlined scripts.
+ * <p/>
+ * processor is MRAIDHtmlProcessor.processRawHtml. legacy is the implementation it
+ * replaced, which compiled its patterns on every call and inserted into a StringBuffer.
+ * <p/>
+ * The demo creatives are read from ../demo/app/assets, relative to the working directory,
+ * which is the library project when run with gradle benchmark. Set the system property
+ * mraid.demoAssets to read them from elsewhere.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MRAIDHtmlProcessorBenchmark {
+
+    private final static int LARGE_CREATIVE_LENGTH = 280 * 1024;
+
+    @Param({"demo", "large"})
+    public String input;
+
+    private String[] creatives;
+
+    @Setup
+    public void setUp() throws IOException {
+        File dir = new File(System.getProperty("mraid.demoAssets", "../demo/app/assets"));
+        String[] names = dir.list();
+        if (names == null) {
+            throw new IOException("no demo creatives in " + dir.getAbsolutePath());
+        }
+        Arrays.sort(names);
+        List<String> demo = new ArrayList<String>();
+        for (String name : names) {
+            if (name.endsWith(".html")) {
+                demo.add(read(new File(dir, name)));
+            }
+        }
+
+        if (input.equals("demo")) {
+            creatives = demo.toArray(new String[demo.size()]);
+        } else {
+            String html = read(new File(dir, "banner.setOrientationProperties.html"));
+            int bodyStart = html.indexOf('>', html.indexOf("<body")) + 1;
+            int bodyEnd = html.indexOf("</body>");
+            String body = html.substring(bodyStart, bodyEnd);
+            StringBuilder large = new StringBuilder(LARGE_CREATIVE_LENGTH + html.length());
+            large.append(html, 0, bodyStart);
+            while (large.length() < LARGE_CREATIVE_LENGTH) {
+                large.append(body);
+            }
+            large.append(html, bodyEnd, html.length());
+            creatives = new String[] { large.toString() };
+        }
+    }
+
+    private static String read(File file) throws IOException {
+        FileInputStream in = new FileInputStream(file);
+        try {
+            return new String(MRAIDContentFetcher.readFully(in, (int) file.length()), "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    @Benchmark
+    public void processor(Blackhole blackhole) {
+        for (String creative : creatives) {
+            blackhole.consume(MRAIDHtmlProcessor.processRawHtml(creative));
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        for (String creative : creatives) {
+            blackhole.consume(legacyProcessRawHtml(creative));
+        }
+    }
+
+    /**************************************************************************
+     * The previous MRAIDHtmlProcessor
+     **************************************************************************/
+
+    private static String legacyProcessRawHtml(String rawHtml) {
+        StringBuffer processedHtml = new StringBuffer(rawHtml);
+
+        String regex;
+        Pattern pattern;
+        Matcher matcher;
+
+        // Remove the mraid.js script tag.
+        regex = "<script\\s+[^>]*\\bsrc\\s*=\\s*([\\\"\\\'])mraid\\.js\\1[^>]*>\\s*</script>\\n*";
+        pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        matcher = pattern.matcher(processedHtml);
+        if (matcher.find()) {
+            processedHtml.delete(matcher.start(), matcher.end());
+        }
+
+        // Add html, head, and/or body tags as needed.
+        boolean hasHtmlTag = (rawHtml.indexOf("<html") != -1);
+        boolean hasHeadTag = (rawHtml.indexOf("<head") != -1);
+        boolean hasBodyTag = (rawHtml.indexOf("<body") != -1);
+
+        // basic sanity checks
+        if ((!hasHtmlTag && (hasHeadTag || hasBodyTag)) || (hasHtmlTag && !hasBodyTag)) {
+            return null;
+        }
+
+        String ls = System.getProperty("line.separator");
+
+        if (!hasHtmlTag) {
+            processedHtml.insert(0, "<html>" + ls + "<head>" + ls + "</head>" + ls + "<body><div align='center'>" + ls);
+            processedHtml.append("</div></body>" + ls + "</html>");
+        } else if (!hasHeadTag) {
+            // html tag exists, head tag doesn't, so add it
+            regex = "<html[^>]*>";
+            pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+            matcher = pattern.matcher(processedHtml);
+            int idx = 0;
+            while (matcher.find(idx)) {
+                processedHtml.insert(matcher.end(), ls + "<head>" + ls + "</head>");
+                idx = matcher.end();
+            }
+        }
+
+        // Add meta and style tags to head tag.
+        String metaTag =
+                "<meta name='viewport' content='width=device-width, initial-scale=1.0, minimum-scale=1.0, maximum-scale=1.0, user-scalable=no' />";
+
+        String styleTag =
+                "<style>" + ls +
+                "body { margin:0; padding:0;}" + ls +
+                "*:not(input) { -webkit-touch-callout:none; -webkit-user-select:none; -webkit-text-size-adjust:none; }" + ls +
+                "</style>";
+
+        regex = "<head[^>]*>";
+        pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+        matcher = pattern.matcher(processedHtml);
+        int idx = 0;
+        while (matcher.find(idx)) {
+            processedHtml.insert(matcher.end(), ls + metaTag + ls + styleTag);
+            idx = matcher.end();
+        }
+
+        return processedHtml.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MRAIDHtmlProcessorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
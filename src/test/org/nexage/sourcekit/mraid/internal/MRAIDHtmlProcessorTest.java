@@ -0,0 +1,45 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MRAIDHtmlProcessorTest {
+
+    private final static String TAG = MRAIDHtmlProcessor.MRAID_JS_TAG;
+
+    @Test
+    public void isMraidJsUrl() {
+        assertTrue(MRAIDHtmlProcessor.isMraidJsUrl(MRAIDHtmlProcessor.MRAID_JS_URL, null));
+        assertTrue(MRAIDHtmlProcessor.isMraidJsUrl("http://example.com/ads/mraid.js", "http://example.com/ads/"));
+        assertTrue(MRAIDHtmlProcessor.isMraidJsUrl("http://example.com/ads/mraid.js?v=2#x", "http://example.com/ads/ad.html"));
+        assertTrue(MRAIDHtmlProcessor.isMraidJsUrl("http://example.com/mraid.js", "http://example.com"));
+        assertTrue(MRAIDHtmlProcessor.isMraidJsUrl("file:///android_asset/mraid.js", "file:///android_asset/"));
+
+        // somebody else's mraid.js
+        assertFalse(MRAIDHtmlProcessor.isMraidJsUrl("http://cdn.example.net/mraid.js", "http://example.com/ads/"));
+        assertFalse(MRAIDHtmlProcessor.isMraidJsUrl("http://example.com/other/mraid.js", "http://example.com/ads/"));
+        assertFalse(MRAIDHtmlProcessor.isMraidJsUrl("http://example.com/ads/lib/mraid.js", "http://example.com/ads/"));
+        assertFalse(MRAIDHtmlProcessor.isMraidJsUrl("http://example.com/ads/xmraid.js", "http://example.com/ads/"));
+        assertFalse(MRAIDHtmlProcessor.isMraidJsUrl("http://example.com/ads/mraid.js", null));
+        assertFalse(MRAIDHtmlProcessor.isMraidJsUrl("http://example.com.evil/mraid.js", "http://example.com"));
+    }
+
+    @Test
+    public void addMraidJsPointsTheScriptTagAtMraidJsUrl() {
+        assertEquals("<html><head>" + TAG + "<title>x</title></head><body></body></html>",
+                MRAIDHtmlProcessor.addMraidJs(
+                        "<html><head><script src=\"mraid.js\"></script><title>x</title></head><body></body></html>"));
+    }
+
+    @Test
+    public void addMraidJsOnlyAddsTheScriptTag() {
+        assertEquals("<html><head class='a'>" + TAG + "</head><body>x</body></html>",
+                MRAIDHtmlProcessor.addMraidJs("<html><head class='a'></head><body>x</body></html>"));
+        assertEquals("<html>" + TAG + "<body>x</body></html>",
+                MRAIDHtmlProcessor.addMraidJs("<html><body>x</body></html>"));
+        assertEquals(TAG + "<div>x</div>", MRAIDHtmlProcessor.addMraidJs("<div>x</div>"));
+    }
+}
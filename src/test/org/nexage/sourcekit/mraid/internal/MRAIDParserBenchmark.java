@@ -0,0 +1,175 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the command URLs in mraid-commands.txt, which were captured from mraid.js
+ * (see the file for how).
+ * <p/>
+ * parser is MRAIDParser, reusing one parser and one MRAIDCommand like MRAIDView does.
+ * legacy is the parser it replaced, which built two HashMaps per command and left
+ * the conversion of the values to MRAIDView. That conversion isn't counted here, so
+ * legacy understates what a command used to cost.
+ * <p/>
+ * Each invocation parses the whole corpus once. Run with gradle benchmark, or run main;
+ * add -prof gc to see the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MRAIDParserBenchmark {
+
+    private String[] commandUrls;
+    private MRAIDParser parser;
+    private MRAIDCommand command;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> urls = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                MRAIDParserBenchmark.class.getResourceAsStream("mraid-commands.txt"), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() > 0 && !line.startsWith("#")) {
+                    urls.add(line);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        commandUrls = urls.toArray(new String[urls.size()]);
+
+        parser = new MRAIDParser();
+        command = new MRAIDCommand();
+        for (String url : commandUrls) {
+            if (!parser.parseCommandUrl(url, command) || legacyParseCommandUrl(url) == null) {
+                throw new IllegalStateException("not a valid command: " + url);
+            }
+        }
+    }
+
+    @Benchmark
+    public void parser(Blackhole blackhole) {
+        for (String url : commandUrls) {
+            blackhole.consume(parser.parseCommandUrl(url, command));
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        for (String url : commandUrls) {
+            blackhole.consume(legacyParseCommandUrl(url));
+        }
+    }
+
+    /**************************************************************************
+     * The previous MRAIDParser, without its logging
+     **************************************************************************/
+
+    private static Map<String, String> legacyParseCommandUrl(String commandUrl) {
+        String s = commandUrl.substring(8);
+
+        String command;
+        Map<String, String> params = new HashMap<String, String>();
+
+        int idx = s.indexOf('?');
+        if (idx != -1) {
+            command = s.substring(0, idx);
+            String paramStr = s.substring(idx + 1);
+            String[] paramArray = paramStr.split("&");
+            for (String param : paramArray) {
+                idx = param.indexOf('=');
+                if (idx == -1) {
+                    return null;
+                }
+                String key = param.substring(0, idx);
+                String val = param.substring(idx + 1);
+                try {
+                    val = URLDecoder.decode(val, "UTF-8");
+                } catch (UnsupportedEncodingException e) {
+                    return null;
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+                params.put(key, val);
+            }
+        } else {
+            command = s;
+        }
+
+        final String[] commands = {
+                "close",
+                "createCalendarEvent",
+                "expand",
+                "open",
+                "playVideo",
+                "resize",
+                "setOrientationProperties",
+                "setResizeProperties",
+                "storePicture",
+                "useCustomClose"
+        };
+        if (!Arrays.asList(commands).contains(command) || !legacyCheckParamsForCommand(command, params)) {
+            return null;
+        }
+
+        Map<String, String> commandMap = new HashMap<String, String>();
+        commandMap.put("command", command);
+        commandMap.putAll(params);
+        return commandMap;
+    }
+
+    private static boolean legacyCheckParamsForCommand(String command, Map<String, String> params) {
+        if (command.equals("createCalendarEvent")) {
+            return params.containsKey("eventJSON");
+        } else if (command.equals("open") || command.equals("playVideo") || command.equals("storePicture")) {
+            return params.containsKey("url");
+        } else if (command.equals("setOrientationProperties")) {
+            return params.containsKey("allowOrientationChange") &&
+                    params.containsKey("forceOrientation");
+        } else if (command.equals("setResizeProperties")) {
+            return params.containsKey("width") &&
+                    params.containsKey("height") &&
+                    params.containsKey("offsetX") &&
+                    params.containsKey("offsetY") &&
+                    params.containsKey("customClosePosition") &&
+                    params.containsKey("allowOffscreen");
+        } else if (command.equals("useCustomClose")) {
+            return params.containsKey("useCustomClose");
+        }
+        return true;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MRAIDParserBenchmark.class.getSimpleName()).build()).run();
+    }
+}
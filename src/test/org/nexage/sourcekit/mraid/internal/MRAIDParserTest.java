@@ -0,0 +1,160 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.nexage.sourcekit.mraid.properties.MRAIDOrientationProperties;
+import org.nexage.sourcekit.mraid.properties.MRAIDResizeProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class MRAIDParserTest {
+
+    private static final String RESIZE_PROPERTIES = "mraid://setResizeProperties?customClosePosition=center"
+            + "&allowOffscreen=true&offsetX=0&offsetY=0&";
+
+    private MRAIDParser parser;
+    private MRAIDCommand command;
+
+    @Before
+    public void setUp() {
+        parser = new MRAIDParser();
+        command = new MRAIDCommand();
+    }
+
+    private boolean parse(String url) {
+        return parser.parseCommandUrl(url, command);
+    }
+
+    @Test
+    public void parsesCommands() {
+        assertTrue(parse("mraid://close"));
+        assertEquals(MRAIDCommand.Type.CLOSE, command.type);
+
+        assertTrue(parse("mraid://open?url=http%3A%2F%2Fexample.com%2Fa%3Fb%3Dc%26d"));
+        assertEquals(MRAIDCommand.Type.OPEN, command.type);
+        assertEquals("http://example.com/a?b=c&d", command.url);
+
+        assertTrue(parse("mraid://setOrientationProperties?allowOrientationChange=false&forceOrientation=landscape"));
+        assertFalse(command.allowOrientationChange);
+        assertEquals(MRAIDOrientationProperties.FORCE_ORIENTATION_LANDSCAPE, command.forceOrientation);
+
+        assertTrue(parse("mraid://setResizeProperties?width=320&height=250&customClosePosition=bottom-left"
+                + "&offsetX=-10&offsetY=%2B20&allowOffscreen=TRUE"));
+        assertEquals(320, command.width);
+        assertEquals(250, command.height);
+        assertEquals(-10, command.offsetX);
+        assertEquals(20, command.offsetY);
+        assertEquals(MRAIDResizeProperties.CUSTOM_CLOSE_POSITION_BOTTOM_LEFT, command.customClosePosition);
+        assertTrue(command.allowOffscreen);
+    }
+
+    @Test
+    public void rejectsBadEscapes() {
+        assertFalse(parse("mraid://open?url=%"));
+        assertFalse(parse("mraid://open?url=abc%4"));
+        assertFalse(parse("mraid://open?url=abc%4&x=1"));
+        assertFalse(parse("mraid://open?url=%zz"));
+        assertFalse(parse("mraid://open?url=%4g"));
+        assertTrue(parse("mraid://open?url=%41"));
+        assertEquals("A", command.url);
+        assertTrue(parse("mraid://open?url=a+b%2Bc"));
+        assertEquals("a b+c", command.url);
+    }
+
+    @Test
+    public void rejectsMalformedUrls() {
+        assertFalse(parse("http://close"));
+        assertFalse(parse("mraid:/close"));
+        assertFalse(parse("mraid://open?url"));
+        assertFalse(parse("mraid://open?x=1"));
+        assertFalse(parse("mraid://useCustomClose"));
+    }
+
+    @Test
+    public void decodesMultibyteValues() {
+        // an e with an acute accent (2 bytes), the euro sign (3 bytes) and an emoji (4 bytes, a surrogate pair in Java)
+        assertTrue(parse("mraid://open?url=caf%C3%A9%E2%82%AC%F0%9F%98%80"));
+        assertEquals("caf\u00e9\u20ac\ud83d\ude00", command.url);
+
+        // the bridge passes values that aren't encoded
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("url", "caf\u00e9\u20ac\ud83d\ude00 50%");
+        assertTrue(parser.parseCommand("open", params, command));
+        assertEquals("caf\u00e9\u20ac\ud83d\ude00 50%", command.url);
+
+        // unencoded characters in a URL are passed through as well
+        assertTrue(parse("mraid://open?url=\u20ac\ud83d\ude00"));
+        assertEquals("\u20ac\ud83d\ude00", command.url);
+    }
+
+    @Test
+    public void growsTheValueBuffer() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("%E2%82%AC");
+        }
+        assertTrue(parse("mraid://open?url=" + sb));
+        assertEquals(1000, command.url.length());
+    }
+
+    @Test
+    public void parsesIntsInRange() {
+        assertTrue(parse(RESIZE_PROPERTIES + "width=2147483647&height=-2147483648"));
+        assertEquals(Integer.MAX_VALUE, command.width);
+        assertEquals(Integer.MIN_VALUE, command.height);
+
+        assertFalse(parse(RESIZE_PROPERTIES + "width=2147483648&height=1"));
+        assertFalse(parse(RESIZE_PROPERTIES + "width=1&height=-2147483649"));
+        assertFalse(parse(RESIZE_PROPERTIES + "width=99999999999999999999&height=1"));
+        assertFalse(parse(RESIZE_PROPERTIES + "width=&height=1"));
+        assertFalse(parse(RESIZE_PROPERTIES + "width=-&height=1"));
+        assertFalse(parse(RESIZE_PROPERTIES + "width=1.5&height=1"));
+        assertFalse(parse(RESIZE_PROPERTIES + "width=1&height=%201"));
+    }
+
+    @Test
+    public void handlesUnknownCommandsAndParams() {
+        assertFalse(parse("mraid://unknown"));
+        assertNull(command.type);
+        assertFalse(parse("mraid://closeX"));
+        assertFalse(parse("mraid://clos"));
+
+        assertTrue(parse("mraid://open?foo=bar&url=x&urls=y"));
+        assertEquals("x", command.url);
+
+        // keywords outside the list fall back to the defaults
+        assertTrue(parse("mraid://setOrientationProperties?allowOrientationChange=yes&forceOrientation=Portrait"));
+        assertFalse(command.allowOrientationChange);
+        assertEquals(MRAIDOrientationProperties.FORCE_ORIENTATION_NONE, command.forceOrientation);
+    }
+
+    @Test
+    public void clearsTheCommandBetweenCalls() {
+        assertTrue(parse("mraid://setResizeProperties?width=320&height=250&customClosePosition=center"
+                + "&offsetX=5&offsetY=6&allowOffscreen=true"));
+        assertTrue(parse("mraid://expand"));
+        assertEquals(MRAIDCommand.Type.EXPAND, command.type);
+        assertNull(command.url);
+        assertEquals(0, command.width);
+        assertEquals(0, command.height);
+        assertEquals(0, command.offsetX);
+        assertEquals(0, command.offsetY);
+        assertEquals(MRAIDResizeProperties.CUSTOM_CLOSE_POSITION_TOP_RIGHT, command.customClosePosition);
+        assertFalse(command.allowOffscreen);
+
+        // a failed parse doesn't leave the previous command behind either
+        assertTrue(parse("mraid://open?url=x"));
+        assertFalse(parse("mraid://storePicture?url=%"));
+        assertNull(command.url);
+
+        // nor do the parameters seen by the previous command count towards this one
+        assertTrue(parse("mraid://playVideo?url=x"));
+        assertFalse(parse("mraid://storePicture"));
+    }
+}
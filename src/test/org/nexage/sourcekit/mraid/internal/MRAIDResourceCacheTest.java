@@ -0,0 +1,341 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs MRAIDResourceCache against a local HTTP server standing in for an ad server.
+ */
+public class MRAIDResourceCacheTest {
+
+    private HttpServer server;
+    private String origin;
+    private File directory;
+    private MRAIDResourceCache cache;
+    private MRAIDResourceCache.Stats stats;
+
+    // path -> number of requests the server has answered
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<String, AtomicInteger>();
+    // path -> request headers of the last request
+    private final Map<String, Map<String, String>> lastRequestHeaders = new ConcurrentHashMap<String, Map<String, String>>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange);
+            }
+        });
+        server.start();
+        origin = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        directory = File.createTempFile("mraid-resources", "");
+        directory.delete();
+        cache = new MRAIDResourceCache(directory);
+        stats = new MRAIDResourceCache.Stats();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    // The path says what to answer: /<cache-control>/<name>.<extension>, or /missing/... for a 404.
+    private void respond(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        AtomicInteger count = requestCounts.get(path);
+        if (count == null) {
+            requestCounts.put(path, count = new AtomicInteger());
+        }
+        count.incrementAndGet();
+        Map<String, String> headers = new HashMap<String, String>();
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            headers.put(header.getKey(), header.getValue().get(0));
+        }
+        lastRequestHeaders.put(path, headers);
+
+        if (path.startsWith("/missing/")) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        String[] parts = path.split("/");
+        String cacheControl = parts[1];
+        String name = parts[2];
+        String contentType = name.endsWith(".css") ? "text/css" : "application/javascript; charset=utf-8";
+        byte[] body = ("/* " + name + " */" + new String(new char[1000]).replace('\0', 'x')).getBytes("UTF-8");
+
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
+        exchange.getResponseHeaders().add("Set-Cookie", "seen=" + name);
+        if (name.startsWith("vary")) {
+            exchange.getResponseHeaders().add("Vary", "Origin");
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream os = exchange.getResponseBody();
+        os.write(body);
+        os.close();
+    }
+
+    private MRAIDResourceCache.Response load(String path) {
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("User-Agent", "MRAIDResourceCacheTest");
+        headers.put("Cookie", "session=1");
+        return cache.load(origin + path, headers, stats);
+    }
+
+    private static String read(InputStream is) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int count;
+            while ((count = is.read(buf)) != -1) {
+                out.write(buf, 0, count);
+            }
+            return out.toString("UTF-8");
+        } finally {
+            is.close();
+        }
+    }
+
+    // Header names are case-insensitive, and the server capitalizes them its own way.
+    private static String header(MRAIDResourceCache.Response response, String name) {
+        for (Map.Entry<String, String> header : response.headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private int requestCount(String path) {
+        AtomicInteger count = requestCounts.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    /**************************************************************************
+     * Cache-Control and URLs
+     **************************************************************************/
+
+    @Test
+    public void maxAgeMillis() {
+        assertEquals(60000, MRAIDResourceCache.maxAgeMillis("max-age=60"));
+        assertEquals(60000, MRAIDResourceCache.maxAgeMillis("public, Max-Age=60"));
+        assertEquals(0, MRAIDResourceCache.maxAgeMillis(null));
+        assertEquals(0, MRAIDResourceCache.maxAgeMillis("public"));
+        assertEquals(0, MRAIDResourceCache.maxAgeMillis("max-age=60, no-store"));
+        assertEquals(0, MRAIDResourceCache.maxAgeMillis("no-cache, max-age=60"));
+        assertEquals(0, MRAIDResourceCache.maxAgeMillis("private, max-age=60"));
+        assertEquals(0, MRAIDResourceCache.maxAgeMillis("max-age=soon"));
+    }
+
+    @Test
+    public void maxAgeMillisIgnoresSharedMaxAge() {
+        assertEquals(0, MRAIDResourceCache.maxAgeMillis("s-maxage=600"));
+        assertEquals(60000, MRAIDResourceCache.maxAgeMillis("max-age=60, s-maxage=600"));
+        assertEquals(60000, MRAIDResourceCache.maxAgeMillis("s-maxage=600, max-age=60"));
+    }
+
+    @Test
+    public void isCacheable() {
+        assertTrue(MRAIDResourceCache.isCacheable("https://ads.example.com/creative/app.js"));
+        assertTrue(MRAIDResourceCache.isCacheable("http://ads.example.com/style.CSS?v=2"));
+        assertTrue(MRAIDResourceCache.isCacheable("https://ads.example.com/font.woff2#x"));
+        assertFalse(MRAIDResourceCache.isCacheable("https://ads.example.com/ad.html"));
+        assertFalse(MRAIDResourceCache.isCacheable("https://ads.example.com/v1.2/ad"));
+        assertFalse(MRAIDResourceCache.isCacheable("https://ads.example.com/script?name=app.js"));
+        assertFalse(MRAIDResourceCache.isCacheable("file:///android_asset/app.js"));
+    }
+
+    @Test
+    public void isCacheableVary() {
+        assertTrue(MRAIDResourceCache.isCacheableVary(null));
+        assertTrue(MRAIDResourceCache.isCacheableVary("Accept-Encoding"));
+        assertFalse(MRAIDResourceCache.isCacheableVary("Accept-Encoding, Origin"));
+        assertFalse(MRAIDResourceCache.isCacheableVary("*"));
+    }
+
+    @Test
+    public void responseHeaders() {
+        Map<String, List<String>> fields = new HashMap<String, List<String>>();
+        fields.put(null, list("HTTP/1.1 200 OK"));
+        fields.put("Access-Control-Allow-Origin", list("*"));
+        fields.put("Content-Length", list("1000"));
+        fields.put("Content-Encoding", list("gzip"));
+        fields.put("X-Android-Received-Millis", list("1"));
+        fields.put("Set-Cookie", list("a=1", "b=2"));
+        fields.put("Link", list("<a.css>", "<b.css>"));
+        List<String> cookies = new ArrayList<String>();
+
+        Map<String, String> headers = MRAIDResourceCache.responseHeaders(fields, cookies);
+
+        assertEquals(2, headers.size());
+        assertEquals("*", headers.get("Access-Control-Allow-Origin"));
+        assertEquals("<a.css>, <b.css>", headers.get("Link"));
+        assertEquals(list("a=1", "b=2"), cookies);
+    }
+
+    private static List<String> list(String... values) {
+        List<String> list = new ArrayList<String>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**************************************************************************
+     * Against the server
+     **************************************************************************/
+
+    @Test
+    public void storesAndServesFromDisk() throws IOException {
+        String path = "/max-age=600/app.js";
+
+        MRAIDResourceCache.Response first = load(path);
+        assertNotNull(first);
+        String body = read(first.data);
+        assertEquals("application/javascript", first.mimeType);
+        assertEquals("UTF-8", first.encoding);
+        assertEquals("*", header(first, "Access-Control-Allow-Origin"));
+        assertEquals(list("seen=app.js"), first.cookies);
+
+        MRAIDResourceCache.Response second = load(path);
+        assertNotNull(second);
+        assertEquals(body, read(second.data));
+        assertEquals("application/javascript", second.mimeType);
+        assertEquals("*", header(second, "Access-Control-Allow-Origin"));
+        // cookies are set once, when the response comes from the network
+        assertTrue(second.cookies.isEmpty());
+        assertNull(header(second, "Set-Cookie"));
+
+        assertEquals(1, requestCount(path));
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(body.length(), stats.getBytesSaved());
+    }
+
+    @Test
+    public void forwardsRequestHeaders() throws IOException {
+        String path = "/max-age=600/headers.js";
+        read(load(path).data);
+
+        Map<String, String> headers = lastRequestHeaders.get(path);
+        assertEquals("MRAIDResourceCacheTest", headers.get("User-agent"));
+        assertEquals("session=1", headers.get("Cookie"));
+    }
+
+    @Test
+    public void leavesUnstorableResponsesToTheWebView() throws IOException {
+        String[] paths = { "/no-store/a.js", "/s-maxage=600/b.js", "/max-age=600/vary.js" };
+        for (String path : paths) {
+            // served the first time, since it has already been downloaded
+            MRAIDResourceCache.Response first = load(path);
+            assertNotNull(path, first);
+            read(first.data);
+            // then left alone
+            assertNull(path, load(path));
+            assertEquals(path, 1, requestCount(path));
+        }
+        assertEquals(0, stats.getHitCount());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void leavesErrorsToTheWebView() {
+        assertNull(load("/missing/a.js"));
+        assertNull(load("/missing/a.js"));
+        assertEquals(1, requestCount("/missing/a.js"));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        String a = "/max-age=600/a.js";
+        String b = "/max-age=600/b.js";
+        String c = "/max-age=600/c.js";
+        read(load(a).data);
+        read(load(b).data);
+        long entrySize = cache.getSize() / 2;
+        // room for two entries, each no bigger than 1/8 of the cache
+        cache.setMaxBytes(entrySize * 8);
+        cache.setMaxBytes(entrySize * 2);
+
+        // a is now more recently used than b
+        read(load(a).data);
+        cache.setMaxBytes(entrySize * 8);
+        read(load(c).data);
+        cache.setMaxBytes(entrySize * 2);
+
+        assertEquals(entrySize * 2, cache.getSize());
+        read(load(a).data);
+        read(load(c).data);
+        assertEquals(1, requestCount(a));
+        assertEquals(1, requestCount(c));
+        read(load(b).data);
+        assertEquals(2, requestCount(b));
+    }
+
+    @Test
+    public void indexesEntriesFromAPreviousRun() throws IOException {
+        String path = "/max-age=600/kept.css";
+        String body = read(load(path).data);
+        long size = cache.getSize();
+
+        MRAIDResourceCache reopened = new MRAIDResourceCache(directory);
+        assertEquals(size, reopened.getSize());
+        MRAIDResourceCache.Response response = reopened.load(origin + path, new HashMap<String, String>(), stats);
+        assertNotNull(response);
+        assertEquals("text/css", response.mimeType);
+        assertEquals("*", header(response, "Access-Control-Allow-Origin"));
+        assertEquals(body, read(response.data));
+        assertEquals(1, requestCount(path));
+    }
+
+    @Test
+    public void clear() throws IOException {
+        String path = "/max-age=600/cleared.js";
+        read(load(path).data);
+        assertTrue(cache.getSize() > 0);
+
+        cache.clear();
+
+        assertEquals(0, cache.getSize());
+        assertEquals(0, directory.listFiles().length);
+        read(load(path).data);
+        assertEquals(2, requestCount(path));
+    }
+}
@@ -0,0 +1,100 @@
+package org.nexage.sourcekit.mraid.internal;
+
+import android.webkit.WebView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class MRAIDStateBufferTest {
+
+    // Records the scripts it is asked to run.
+    private static class RecordingWebView extends WebView {
+        final List<String> scripts = new ArrayList<String>();
+
+        RecordingWebView() {
+            super(null);
+        }
+
+        @Override
+        public void loadUrl(String url) {
+            scripts.add(url.substring("javascript:".length()));
+        }
+
+        @Override
+        public void evaluateJavascript(String script, android.webkit.ValueCallback<String> resultCallback) {
+            scripts.add(script);
+        }
+    }
+
+    private MRAIDStateBuffer buffer;
+    private RecordingWebView webView;
+
+    @Before
+    public void setUp() {
+        buffer = new MRAIDStateBuffer();
+        webView = new RecordingWebView();
+        buffer.bind(webView);
+    }
+
+    @Test
+    public void coalescesStateBetweenEvents() {
+        buffer.setCurrentPosition(0, 0, 320, 50);
+        buffer.setCurrentPosition(0, 10, 320, 50);
+        buffer.setMaxSize(320, 480);
+        buffer.flush();
+
+        assertEquals(1, webView.scripts.size());
+        assertEquals("mraid.setMaxSize(320,480);mraid.setCurrentPosition(0,10,320,50);", webView.scripts.get(0));
+    }
+
+    @Test
+    public void keepsStateAndEventsInOrder() {
+        buffer.setCurrentPosition(0, 0, 320, 50);
+        buffer.enqueue("mraid.fireStateChangeEvent('resized');");
+        buffer.setCurrentPosition(0, 0, 320, 250);
+        buffer.enqueue("mraid.fireReadyEvent();");
+        buffer.setMaxSize(320, 480);
+        buffer.flush();
+
+        assertEquals(1, webView.scripts.size());
+        assertEquals("mraid.setCurrentPosition(0,0,320,50);"
+                + "mraid.fireStateChangeEvent('resized');"
+                + "mraid.setCurrentPosition(0,0,320,250);"
+                + "mraid.fireReadyEvent();"
+                + "mraid.setMaxSize(320,480);", webView.scripts.get(0));
+    }
+
+    @Test
+    public void sendsOnlyChangedState() {
+        buffer.setScreenSize(320, 480);
+        buffer.flush();
+        buffer.setScreenSize(320, 480);
+        buffer.enqueue("mraid.fireReadyEvent();");
+        buffer.flush();
+
+        assertEquals(2, webView.scripts.size());
+        assertEquals("mraid.fireReadyEvent();", webView.scripts.get(1));
+    }
+
+    @Test
+    public void cancelDropsPendingState() {
+        buffer.setCurrentPosition(0, 0, 320, 50);
+        buffer.enqueue("mraid.fireStateChangeEvent('default');");
+        buffer.cancel();
+        buffer.flush();
+
+        assertEquals(0, webView.scripts.size());
+
+        // a new WebView gets everything again
+        RecordingWebView next = new RecordingWebView();
+        buffer.bind(next);
+        buffer.setCurrentPosition(0, 0, 320, 50);
+        buffer.flush();
+        assertEquals(1, next.scripts.size());
+    }
+}
@@ -0,0 +1,79 @@
+//
+//  bench-mraid-events.js
+//
+//  Micro-benchmark of event dispatch in mraid.js:
+//
+//      node tools/bench-mraid-events.js [iterations]
+//
+//  Loads the debug and production variants into their own contexts, with a
+//  minimal window and a console that drops everything, and times the calls the
+//  SDK makes most often: setCurrentPosition with a changed size (which fires
+//  sizeChange to every listener) and fireViewableChangeEvent. Run
+//  build-mraid-js.js first so the production variant is up to date.
+//
+
+var fs = require("fs");
+var path = require("path");
+var vm = require("vm");
+
+var ASSETS_DIR = path.join(__dirname, "..", "src", "org", "nexage", "sourcekit", "mraid", "assets");
+
+var ITERATIONS = parseInt(process.argv[2], 10) || 200000;
+var LISTENERS = 3;
+var RUNS = 5;
+
+function load(file, logLevel) {
+	var context = vm.createContext({
+		"console" : { "log" : function() {} },
+		"setTimeout" : function() {}
+	});
+	context.window = context;
+	vm.runInContext(fs.readFileSync(path.join(ASSETS_DIR, file), "utf8"), context);
+	// what MRAIDView appends when it serves mraid.js
+	vm.runInContext("mraid.logLevel = mraid.LogLevelEnum." + logLevel + ";", context);
+	return context.mraid;
+}
+
+// mraid.js ignores a listener with the same source as one already registered,
+// so each listener is compiled from its own source.
+function listener(params, body, i) {
+	return new Function("sink", "return function(" + params + ") { " + body + " /* " + i + " */ };")(sink);
+}
+
+var sink = { "n" : 0 };
+
+function prepare(mraid) {
+	for (var i = 0; i < LISTENERS; i++) {
+		mraid.addEventListener("sizeChange", listener("width, height", "sink.n += width + height;", i));
+		mraid.addEventListener("viewableChange", listener("viewable", "sink.n += viewable ? 1 : 0;", i));
+	}
+	mraid.setPlacementType("inline");
+	mraid.fireStateChangeEvent("default");
+}
+
+function run(mraid) {
+	var start = process.hrtime();
+	for (var i = 0; i < ITERATIONS; i++) {
+		mraid.setCurrentPosition(0, 0, 320, 50 + (i & 1));
+		mraid.fireViewableChangeEvent((i & 1) === 0);
+		mraid.getState();
+	}
+	var elapsed = process.hrtime(start);
+	return (elapsed[0] * 1e9 + elapsed[1]) / ITERATIONS;
+}
+
+function bench(label, file, logLevel) {
+	var mraid = load(file, logLevel);
+	prepare(mraid);
+	run(mraid);
+	var best = Infinity;
+	for (var i = 0; i < RUNS; i++) {
+		best = Math.min(best, run(mraid));
+	}
+	console.log(label + ": " + best.toFixed(0) + " ns per iteration");
+}
+
+console.log(ITERATIONS + " iterations, " + LISTENERS + " listeners per event, best of " + RUNS + " runs");
+bench("mraid.js, DEBUG    ", "mraid.js", "DEBUG");
+bench("mraid.js, NONE     ", "mraid.js", "NONE");
+bench("mraid.min.js, ERROR", "mraid.min.js", "ERROR");
@@ -0,0 +1,119 @@
+//
+//  build-mraid-js.js
+//
+//  Builds the production variant of mraid.js:
+//
+//      node tools/build-mraid-js.js
+//
+//  assets/mraid.js is the debug variant and is served as is. The production
+//  variant, assets/mraid.min.js, is the same code with its log.d, log.i and
+//  log.w statements removed, so none of their message strings are ever built,
+//  and with comments and indentation stripped. log.e statements are kept, so
+//  errors can still be logged with the production variant.
+//
+//  Run this after every change to assets/mraid.js and commit both files.
+//
+
+var fs = require("fs");
+var path = require("path");
+
+var ASSETS_DIR = path.join(__dirname, "..", "src", "org", "nexage", "sourcekit", "mraid", "assets");
+var SOURCE = path.join(ASSETS_DIR, "mraid.js");
+var TARGET = path.join(ASSETS_DIR, "mraid.min.js");
+
+var HEADER = "// mraid.js (production build, generated from mraid.js by tools/build-mraid-js.js)\n";
+
+// the statements removed from the production variant
+var STRIPPED_CALL = /^log\.[diw]\(/;
+
+// Calls the returned function for every character of js that is code, that is,
+// not inside a string or a comment. It returns the index to continue from.
+function scan(js, onCode) {
+	var i = 0;
+	while (i < js.length) {
+		var c = js.charAt(i);
+		if (c === "\"" || c === "'") {
+			var end = i + 1;
+			while (js.charAt(end) !== c) {
+				if (end >= js.length) {
+					throw new Error("unterminated string at " + i);
+				}
+				end += js.charAt(end) === "\\" ? 2 : 1;
+			}
+			i = onCode(i, "string", end + 1);
+		} else if (js.startsWith("//", i)) {
+			var end = js.indexOf("\n", i);
+			i = onCode(i, "comment", end === -1 ? js.length : end);
+		} else if (js.startsWith("/*", i)) {
+			var end = js.indexOf("*/", i);
+			if (end === -1) {
+				throw new Error("unterminated comment at " + i);
+			}
+			i = onCode(i, "comment", end + 2);
+		} else {
+			i = onCode(i, "code", i + 1);
+		}
+	}
+}
+
+// Returns the index just past the ')' that closes the '(' at start.
+function findCallEnd(js, start) {
+	var depth = 0;
+	var callEnd = -1;
+	scan(js.substring(start), function(i, type, next) {
+		if (callEnd !== -1) {
+			return js.length;
+		}
+		if (type === "code") {
+			var c = js.charAt(start + i);
+			if (c === "(") {
+				depth++;
+			} else if (c === ")" && --depth === 0) {
+				callEnd = start + next;
+				return js.length;
+			}
+		}
+		return next;
+	});
+	if (callEnd === -1) {
+		throw new Error("unterminated call at " + start);
+	}
+	return callEnd;
+}
+
+// Removes comments and the stripped log statements. Every log call in mraid.js
+// is a statement of its own, so it can go along with its semicolon.
+function strip(js) {
+	var out = "";
+	scan(js, function(i, type, next) {
+		if (type === "comment") {
+			return next;
+		}
+		if (type === "code" && STRIPPED_CALL.test(js.substring(i, i + 6))
+				&& (i === 0 || /[\s;{}]/.test(js.charAt(i - 1)))) {
+			var end = findCallEnd(js, js.indexOf("(", i));
+			if (js.charAt(end) !== ";") {
+				throw new Error("log call is not a statement at " + i);
+			}
+			return end + 1;
+		}
+		out += js.substring(i, next);
+		return next;
+	});
+	return out;
+}
+
+// Drops indentation, trailing whitespace and empty lines. Line breaks are kept,
+// so automatic semicolon insertion works as it does in the source.
+function compact(js) {
+	return js.split("\n").map(function(line) {
+		return line.trim();
+	}).filter(function(line) {
+		return line.length > 0;
+	}).join("\n") + "\n";
+}
+
+var source = fs.readFileSync(SOURCE, "utf8");
+var built = HEADER + compact(strip(source));
+fs.writeFileSync(TARGET, built);
+console.log("mraid.min.js: " + source.length + " -> " + built.length + " bytes");